@@ -1,6 +1,7 @@
 ﻿using Microsoft.AspNetCore.Authorization;
 using Microsoft.AspNetCore.Mvc;
 using Microsoft.EntityFrameworkCore;
+using Npgsql;
 using SBMS.Parties.Data;
 using SBMS.Parties.Entity;
 
@@ -160,36 +161,71 @@ namespace SBMS.Parties.Controllers
 
         // POST: api/Parties/5/balance
         // Updates the party balance (add or subtract)
+        // With an Idempotency-Key header the update is applied once per key; a repeat returns the current balance
         [HttpPost("{id}/balance")]
-        public async Task<IActionResult> UpdateBalance(long id, [FromBody] BalanceUpdateDto dto)
+        public async Task<IActionResult> UpdateBalance(long id, [FromBody] BalanceUpdateDto dto,
+            [FromHeader(Name = "Idempotency-Key")] string? idempotencyKey)
         {
             var businessId = GetBusinessId();
             if (businessId == Guid.Empty) return Unauthorized();
 
-            var party = await _context.Parties.FirstOrDefaultAsync(p => p.Id == id && p.BusinessId == businessId);
+            if (idempotencyKey != null && (idempotencyKey.Length == 0 || idempotencyKey.Length > 64))
+            {
+                return BadRequest("Idempotency-Key must be 1-64 characters");
+            }
 
-            if (party == null)
+            var exists = await _context.Parties.AnyAsync(p => p.Id == id && p.BusinessId == businessId);
+            if (!exists)
             {
                 return NotFound();
             }
 
-            // Update Balance
-            // Logic: Positive Amount adds to balance, Negative subtracts
-            party.CurrentBalance += dto.Amount;
+            await using var transaction = await _context.Database.BeginTransactionAsync();
 
-            // UpdatedAt
-            party.UpdatedAt = DateTime.UtcNow;
-
-            try
-            {
-                await _context.SaveChangesAsync();
-            }
-            catch (DbUpdateException)
+            if (idempotencyKey != null)
             {
-                throw;
+                // The key row commits with the balance change; a concurrent repeat waits on it and then conflicts
+                _context.BalanceUpdates.Add(new BalanceUpdate
+                {
+                    BusinessId = businessId,
+                    IdempotencyKey = idempotencyKey,
+                    PartyId = id,
+                    Amount = dto.Amount,
+                    CreatedAt = DateTime.UtcNow
+                });
+
+                try
+                {
+                    await _context.SaveChangesAsync();
+                }
+                catch (DbUpdateException e) when (e.InnerException is PostgresException { SqlState: PostgresErrorCodes.UniqueViolation })
+                {
+                    // Already applied by an earlier attempt of the same call
+                    await transaction.RollbackAsync();
+                    return Ok(new { newBalance = await CurrentBalance(id, businessId), replayed = true });
+                }
             }
 
-            return Ok(new { newBalance = party.CurrentBalance });
+            // Update Balance
+            // Logic: Positive Amount adds to balance, Negative subtracts. Done in SQL so concurrent updates can't overwrite each other
+            await _context.Parties
+                .Where(p => p.Id == id && p.BusinessId == businessId)
+                .ExecuteUpdateAsync(s => s
+                    .SetProperty(p => p.CurrentBalance, p => p.CurrentBalance + dto.Amount)
+                    .SetProperty(p => p.UpdatedAt, DateTime.UtcNow));
+
+            await transaction.CommitAsync();
+
+            return Ok(new { newBalance = await CurrentBalance(id, businessId) });
+        }
+
+        private Task<decimal> CurrentBalance(long id, Guid businessId)
+        {
+            return _context.Parties
+                .AsNoTracking()
+                .Where(p => p.Id == id && p.BusinessId == businessId)
+                .Select(p => p.CurrentBalance)
+                .FirstAsync();
         }
 
         public class BalanceUpdateDto
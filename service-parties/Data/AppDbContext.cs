@@ -7,6 +7,7 @@ namespace SBMS.Parties.Data
         public AppDbContext(DbContextOptions<AppDbContext> options) : base(options) { }
         
             public DbSet<Party> Parties { get; set; }
+            public DbSet<BalanceUpdate> BalanceUpdates { get; set; }
 
         protected override void OnModelCreating(ModelBuilder modelBuilder)
         {
@@ -14,6 +15,9 @@ namespace SBMS.Parties.Data
             modelBuilder.Entity<Party>()
                 .Property(p => p.Type)
                 .HasConversion<string>();
+
+            modelBuilder.Entity<BalanceUpdate>()
+                .HasKey(b => new { b.BusinessId, b.IdempotencyKey });
         }
 
 
@@ -0,0 +1,28 @@
+using System.ComponentModel.DataAnnotations;
+using System.ComponentModel.DataAnnotations.Schema;
+
+namespace SBMS.Parties.Entity
+{
+    // One row per applied balance update that carried an Idempotency-Key.
+    // Primary key (business_id, idempotency_key): a retried call finds its row and is not applied again
+    [Table("party_balance_updates")]
+    public class BalanceUpdate
+    {
+        [Column("business_id")]
+        public Guid BusinessId { get; set; }
+
+        [Required]
+        [MaxLength(64)]
+        [Column("idempotency_key")]
+        public string IdempotencyKey { get; set; } = string.Empty;
+
+        [Column("party_id")]
+        public long PartyId { get; set; }
+
+        [Column("amount")]
+        public decimal Amount { get; set; }
+
+        [Column("created_at")]
+        public DateTime CreatedAt { get; set; }
+    }
+}
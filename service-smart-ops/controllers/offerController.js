@@ -272,14 +272,22 @@ exports.recordRedemption = async (req, res) => {
 
         // 1. Create Redemption Record
         const Redemption = require('../models/Redemption');
-        await Redemption.create({
-            businessId: req.businessId,
-            offerId,
-            transactionId,
-            customerId,
-            partyName,
-            discountAmount
-        });
+        try {
+            await Redemption.create({
+                businessId: req.businessId,
+                offerId,
+                transactionId,
+                customerId,
+                partyName,
+                discountAmount
+            });
+        } catch (err) {
+            // Already recorded for this bill: a retried call, so don't count it again
+            if (err.code === 11000) {
+                return res.json({ msg: 'Redemption already recorded' });
+            }
+            throw err;
+        }
 
         // 2. Increment Offer Usage Count
         await Offer.findByIdAndUpdate(offerId, { $inc: { usageCount: 1 } });
@@ -318,6 +326,69 @@ exports.rollbackRedemption = async (req, res) => {
     }
 };
 
+// @desc    Apply a batch of redemptions and rollbacks for one business
+// @route   POST /api/smart-ops/offers/redemption/batch
+// @access  Private (Internal Service Call)
+exports.applyRedemptionBatch = async (req, res) => {
+    try {
+        const { records = [], rollbacks = [] } = req.body;
+        const Redemption = require('../models/Redemption');
+        const usageDelta = {};
+
+        // 1. Rollbacks first: an edited bill sends the rollback of its old redemption with the new record
+        let rolledBack = 0;
+        for (const { offerId, transactionId } of rollbacks) {
+            const redemption = await Redemption.findOneAndDelete({
+                businessId: req.businessId,
+                offerId,
+                transactionId
+            });
+            if (redemption) {
+                usageDelta[offerId] = (usageDelta[offerId] || 0) - 1;
+                rolledBack++;
+            }
+        }
+
+        // 2. Upsert all new Redemption Records in one write; records already there (a replayed batch) are left alone
+        let recorded = 0;
+        if (records.length > 0) {
+            const result = await Redemption.bulkWrite(records.map(r => ({
+                updateOne: {
+                    filter: { businessId: req.businessId, offerId: r.offerId, transactionId: r.transactionId },
+                    update: {
+                        $setOnInsert: {
+                            customerId: r.customerId,
+                            partyName: r.partyName,
+                            discountAmount: r.discountAmount
+                        }
+                    },
+                    upsert: true
+                }
+            })), { ordered: false });
+            // Only inserted records count towards usage
+            Object.keys(result.upsertedIds).forEach(index => {
+                const offerId = records[index].offerId;
+                usageDelta[offerId] = (usageDelta[offerId] || 0) + 1;
+                recorded++;
+            });
+        }
+
+        // 3. One Usage Count update per offer
+        const ops = Object.entries(usageDelta)
+            .filter(([, delta]) => delta !== 0)
+            .map(([offerId, delta]) => ({
+                updateOne: { filter: { _id: offerId }, update: { $inc: { usageCount: delta } } }
+            }));
+        if (ops.length > 0) {
+            await Offer.bulkWrite(ops);
+        }
+
+        res.json({ recorded, rolledBack });
+    } catch (err) {
+        res.status(500).send('Server Error');
+    }
+};
+
 // @desc    Get redemptions for an offer
 // @route   GET /api/smart-ops/offers/:id/redemptions
 // @access  Private
@@ -32,5 +32,10 @@ const RedemptionSchema = new mongoose.Schema({
 // Index for analytics
 RedemptionSchema.index({ businessId: 1, offerId: 1 });
 RedemptionSchema.index({ businessId: 1, date: 1 });
+// One redemption per offer per bill, so a replayed batch can't count a bill twice
+RedemptionSchema.index(
+    { businessId: 1, offerId: 1, transactionId: 1 },
+    { unique: true, partialFilterExpression: { transactionId: { $type: 'string' } } }
+);
 
 module.exports = mongoose.model('Redemption', RedemptionSchema);
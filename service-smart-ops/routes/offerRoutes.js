@@ -9,6 +9,7 @@ const {
     toggleStatus,
     recordRedemption,
     rollbackRedemption,
+    applyRedemptionBatch,
     getOfferRedemptions,
     getActiveOffersCount
 } = require('../controllers/offerController');
@@ -25,6 +26,7 @@ router.delete('/:id', deleteOffer);
 router.patch('/:id/status', toggleStatus);
 router.post('/redemption', recordRedemption);
 router.post('/redemption/rollback', rollbackRedemption);
+router.post('/redemption/batch', applyRedemptionBatch);
 router.get('/:id/redemptions', getOfferRedemptions);
 
 module.exports = router;
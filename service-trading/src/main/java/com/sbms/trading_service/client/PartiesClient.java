@@ -0,0 +1,51 @@
+package com.sbms.trading_service.client;
+
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import com.sbms.trading_service.security.JwtService;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Typed client for service-parties
+@Component
+public class PartiesClient extends ServiceClientSupport {
+
+    private final RestTemplate balanceTemplate;
+    private final JwtService jwtService;
+    private final String baseUrl;
+
+    public PartiesClient(HttpClient interServiceHttpClient, JwtService jwtService,
+            CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry, MeterRegistry meterRegistry,
+            @Value("${service.parties.url}") String baseUrl,
+            @Value("${http.client.parties.balance-timeout-ms:3000}") long balanceTimeoutMs) {
+        super("parties", circuitBreakerRegistry, bulkheadRegistry, meterRegistry);
+        this.balanceTemplate = restTemplate(interServiceHttpClient, balanceTimeoutMs);
+        this.jwtService = jwtService;
+        this.baseUrl = baseUrl;
+    }
+
+    // Adds amount to the party's running balance. service-parties applies each idempotency key once,
+    // so a retry of a call that already landed is a no-op
+    public void adjustBalance(UUID businessId, Long partyId, BigDecimal amount, String idempotencyKey) {
+        String url = baseUrl + "/api/Parties/" + partyId + "/balance";
+        Map<String, BigDecimal> body = Collections.singletonMap("amount", amount);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtService.generateServiceToken(businessId));
+        headers.set("Idempotency-Key", idempotencyKey);
+
+        run("balance", () -> balanceTemplate.postForEntity(url, new HttpEntity<>(body, headers), Void.class));
+    }
+}
@@ -0,0 +1,77 @@
+package com.sbms.trading_service.client;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Base for typed clients of other services. Each remote service gets its own bulkhead and
+ * circuit breaker, and every call is timed into the trading.client.requests histogram
+ * tagged by service, endpoint and outcome.
+ */
+public abstract class ServiceClientSupport {
+
+    private final String service;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final MeterRegistry meterRegistry;
+
+    protected ServiceClientSupport(String service, CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry, MeterRegistry meterRegistry) {
+        this.service = service;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(service);
+        this.bulkhead = bulkheadRegistry.bulkhead(service);
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Endpoints share the pooled HttpClient but each gets its own read timeout
+    protected static RestTemplate restTemplate(HttpClient httpClient, long readTimeoutMs) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        return new RestTemplate(requestFactory);
+    }
+
+    protected <T> T execute(String endpoint, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            // Bulkhead outside the breaker, so rejected calls don't count as failures of the service
+            return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, call)).get();
+        } catch (BulkheadFullException e) {
+            outcome = "rejected";
+            throw e;
+        } catch (CallNotPermittedException e) {
+            outcome = "short_circuited";
+            throw e;
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("trading.client.requests")
+                    .tag("service", service)
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    protected void run(String endpoint, Runnable call) {
+        execute(endpoint, () -> {
+            call.run();
+            return null;
+        });
+    }
+}
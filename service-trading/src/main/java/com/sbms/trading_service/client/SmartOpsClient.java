@@ -0,0 +1,64 @@
+package com.sbms.trading_service.client;
+
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import com.sbms.trading_service.security.JwtService;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Typed client for service-smart-ops
+@Component
+public class SmartOpsClient extends ServiceClientSupport {
+
+    private final RestTemplate redemptionTemplate;
+    private final RestTemplate countTemplate;
+    private final JwtService jwtService;
+    private final String baseUrl;
+
+    public SmartOpsClient(HttpClient interServiceHttpClient, JwtService jwtService,
+            CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry, MeterRegistry meterRegistry,
+            @Value("${service.smartops.url}") String baseUrl,
+            @Value("${http.client.smartops.redemption-timeout-ms:5000}") long redemptionTimeoutMs,
+            @Value("${http.client.smartops.count-timeout-ms:800}") long countTimeoutMs) {
+        super("smartops", circuitBreakerRegistry, bulkheadRegistry, meterRegistry);
+        this.redemptionTemplate = restTemplate(interServiceHttpClient, redemptionTimeoutMs);
+        this.countTemplate = restTemplate(interServiceHttpClient, countTimeoutMs);
+        this.jwtService = jwtService;
+        this.baseUrl = baseUrl;
+    }
+
+    // Applies rollbacks, then records, for one business in a single call
+    public void sendRedemptionBatch(UUID businessId, List<Map<String, Object>> records,
+            List<Map<String, Object>> rollbacks) {
+        String url = baseUrl + "/api/smart-ops/offers/redemption/batch";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtService.generateServiceToken(businessId));
+
+        Map<String, Object> body = Map.of("records", records, "rollbacks", rollbacks);
+        run("redemption-batch", () -> redemptionTemplate.postForEntity(url, new HttpEntity<>(body, headers), Void.class));
+    }
+
+    // Internal endpoint, no authentication required
+    @SuppressWarnings("unchecked")
+    public int getActiveOffersCount(UUID businessId) {
+        String url = baseUrl + "/api/smart-ops/offers/count/" + businessId;
+        Map<String, Object> response = execute("offers-count", () -> countTemplate.getForObject(url, Map.class));
+
+        if (response != null && response.get("count") instanceof Number count) {
+            return count.intValue();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,199 @@
+package com.sbms.trading_service.config;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the indexes Hibernate's ddl-auto cannot express (GIN, expression and partial
+ * indexes) once the schema exists. Indexes are built CONCURRENTLY, so billing and product
+ * writes carry on while a large table is indexed. Most are optional: if one cannot be created the
+ * queries it serves still work, just without the index. Unique indexes also enforce a rule,
+ * so their failures are kept and reported by {@link DatabaseIndexHealthIndicator}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseIndexInitializer implements ApplicationRunner {
+
+    private static final String NORMALIZE_SKUS_SQL =
+            "UPDATE products SET sku = NULLIF(btrim(sku), ''), updated_at = ? "
+            + "WHERE sku IS DISTINCT FROM NULLIF(btrim(sku), '')";
+
+    private static final String DUPLICATE_SKUS_SQL =
+            "SELECT count(*) FROM (SELECT 1 FROM products WHERE sku IS NOT NULL "
+            + "GROUP BY business_id, sku HAVING count(*) > 1) d";
+
+    private static final String INDEX_EXISTS_SQL = "SELECT count(*) FROM pg_class WHERE relname = ? AND relkind = 'i'";
+
+    private static final String MAX_LINE_ID_SQL = "SELECT COALESCE(max(tp_id), 0) FROM transaction_products";
+
+    private static final String BACKFILL_LINE_TYPES_SQL =
+            "UPDATE transaction_products tp SET type = t.type FROM transactions t "
+            + "WHERE t.transaction_id = tp.transaction_id AND tp.type IS NULL AND tp.tp_id > ? AND tp.tp_id <= ?";
+
+    // Lines per backfill statement; each range commits on its own, keeping row locks and WAL bursts short
+    private static final long BACKFILL_BATCH = 10_000;
+
+    private static final String INVALID_INDEX_SQL =
+            "SELECT count(*) FROM pg_class c JOIN pg_index i ON i.indexrelid = c.oid "
+            + "WHERE c.relname = ? AND NOT i.indisvalid";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    // Index name -> why it is missing
+    private final Map<String, String> uniqueIndexFailures = new ConcurrentHashMap<>();
+
+    @Value("${search.trigram-index.enabled:true}")
+    private boolean trigramIndexEnabled;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Party-name search: the planner combines this with the (business_id, transaction_date) B-tree index
+        if (trigramIndexEnabled) {
+            if (create("pg_trgm extension", "CREATE EXTENSION IF NOT EXISTS pg_trgm")) {
+                createIndex("trigram index for party-name search", false, "idx_transactions_party_name_trgm",
+                        "ON transactions USING gin (lower(party_name) gin_trgm_ops)");
+            }
+        }
+
+        // Low-stock set: only products at or below their minimum are indexed, ordered by shortfall,
+        // so Postgres keeps the set current on every stock write and top-k reads touch k entries
+        createIndex("partial index for low-stock products", false, "idx_products_low_stock",
+                "ON products (business_id, (current_stock - min_stock), product_id) WHERE current_stock <= min_stock");
+
+        // Barcode/SKU scans: one unique entry per code within a business. Products are written with trimmed
+        // SKUs and blank as null, so the predicate only skips null. Databases that still have the index this
+        // one replaced predate that normalisation: their rows are brought in line once, dropping the old
+        // index in the same transaction so it can't reject trimmed duplicates and marks the work as done.
+        // The build fails while duplicate SKUs exist; that is reported by DatabaseIndexHealthIndicator
+        if (indexExists("idx_products_business_sku")) {
+            normalizeSkus();
+        }
+        if (!createIndex("unique index for SKU lookup", true, "idx_products_business_sku_code",
+                "ON products (business_id, sku) WHERE sku IS NOT NULL")) {
+            String reason = duplicateSkuReason();
+            log.error("SKU uniqueness is not enforced: {}", reason);
+            uniqueIndexFailures.put("idx_products_business_sku_code", reason);
+        }
+
+        // Product history seeks on transaction_products (product_id, type, tp_id). Every write sets a line's
+        // type; lines from before that are filled once, in id ranges, and the index the new one replaced is
+        // dropped last, so its absence marks the backfill as done and later starts skip it
+        if (indexExists("idx_transaction_products_product_line")) {
+            backfillLineTypes();
+        }
+    }
+
+    public Map<String, String> uniqueIndexFailures() {
+        return Map.copyOf(uniqueIndexFailures);
+    }
+
+    private boolean create(String description, String... statements) {
+        try {
+            for (String sql : statements) {
+                jdbcTemplate.execute(sql);
+            }
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Could not create {}: {}", description, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * CREATE [UNIQUE] INDEX CONCURRENTLY, which only blocks schema changes while it builds. It has
+     * to run outside a transaction (runners get auto-commit JdbcTemplate calls). A build that fails
+     * or is interrupted leaves an INVALID index behind, which IF NOT EXISTS would keep forever and
+     * which still slows every write, so such a leftover is dropped before building and on failure.
+     */
+    private boolean createIndex(String description, boolean unique, String name, String definition) {
+        try {
+            dropIfInvalid(name);
+            jdbcTemplate.execute("CREATE " + (unique ? "UNIQUE " : "") + "INDEX CONCURRENTLY IF NOT EXISTS "
+                    + name + " " + definition);
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Could not create {}: {}", description, e.getMessage());
+            try {
+                dropIfInvalid(name);
+            } catch (DataAccessException dropFailed) {
+                log.warn("Could not drop invalid index {}: {}", name, dropFailed.getMessage());
+            }
+            return false;
+        }
+    }
+
+    private boolean indexExists(String name) {
+        try {
+            Long count = jdbcTemplate.queryForObject(INDEX_EXISTS_SQL, Long.class, name);
+            return count != null && count > 0;
+        } catch (DataAccessException e) {
+            log.warn("Could not look up index {}: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    // Interrupted runs resume from the start; ranges already filled match no rows
+    private void backfillLineTypes() {
+        try {
+            Long maxId = jdbcTemplate.queryForObject(MAX_LINE_ID_SQL, Long.class);
+            long filled = 0;
+            for (long from = 0; maxId != null && from < maxId; from += BACKFILL_BATCH) {
+                filled += jdbcTemplate.update(BACKFILL_LINE_TYPES_SQL, from, from + BACKFILL_BATCH);
+            }
+            log.info("Filled the type of {} transaction lines", filled);
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS idx_transaction_products_product_line");
+        } catch (DataAccessException e) {
+            log.warn("Could not fill transaction line types: {}", e.getMessage());
+        }
+    }
+
+    private void dropIfInvalid(String name) {
+        Long invalid = jdbcTemplate.queryForObject(INVALID_INDEX_SQL, Long.class, name);
+        if (invalid != null && invalid > 0) {
+            log.info("Dropping invalid index {} left by an interrupted build", name);
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+        }
+    }
+
+    // JVM clock, like every other product write, so catalog sync picks the changed SKUs up. A one-off:
+    // the plain DROP INDEX holds products exclusively until the update commits
+    private void normalizeSkus() {
+        try {
+            Integer updated = new TransactionTemplate(transactionManager).execute(status -> {
+                jdbcTemplate.execute("DROP INDEX IF EXISTS idx_products_business_sku");
+                return jdbcTemplate.update(NORMALIZE_SKUS_SQL, LocalDateTime.now());
+            });
+            log.info("Normalised {} product SKUs (trimmed, blank to null)", updated);
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Could not normalise product SKUs: {}", e.getMessage());
+        }
+    }
+
+    private String duplicateSkuReason() {
+        try {
+            Long duplicates = jdbcTemplate.queryForObject(DUPLICATE_SKUS_SQL, Long.class);
+            if (duplicates != null && duplicates > 0) {
+                return duplicates + " SKUs are used by more than one product of the same business";
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not count duplicate SKUs: {}", e.getMessage());
+        }
+        return "index could not be created, see the startup log";
+    }
+}
@@ -0,0 +1,68 @@
+package com.sbms.trading_service.config;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpClientErrorException;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Shared plumbing for calls to service-parties and service-smart-ops (see the client package)
+@Configuration
+public class HttpClientConfig {
+
+    // One pooled client for every inter-service call: the JDK keeps idle HTTP/1.1 connections alive and reuses them
+    @Bean
+    public HttpClient interServiceHttpClient(@Value("${http.client.connect-timeout-ms:1000}") long connectTimeoutMs) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+    }
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(MeterRegistry meterRegistry,
+            @Value("${http.client.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${http.client.circuit-breaker.slow-call-ms:2000}") long slowCallMs,
+            @Value("${http.client.circuit-breaker.open-seconds:30}") long openSeconds) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(20)
+                .minimumNumberOfCalls(10)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallMs))
+                .slowCallRateThreshold(80)
+                .waitDurationInOpenState(Duration.ofSeconds(openSeconds))
+                .permittedNumberOfCallsInHalfOpenState(3)
+                // A 4xx means our request was wrong, not that the other service is unhealthy
+                .ignoreExceptions(HttpClientErrorException.class)
+                .build();
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    // No waiting for a permit: when a service is slow, extra callers fail fast instead of piling up
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(MeterRegistry meterRegistry,
+            @Value("${http.client.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls) {
+        BulkheadConfig config = BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+
+        BulkheadRegistry registry = BulkheadRegistry.of(config);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+}
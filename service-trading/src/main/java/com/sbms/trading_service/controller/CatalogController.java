@@ -0,0 +1,33 @@
+package com.sbms.trading_service.controller;
+
+import java.util.UUID;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sbms.trading_service.dto.CatalogChangesResponse;
+import com.sbms.trading_service.service.CatalogSyncService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/trading/catalog")
+@RequiredArgsConstructor
+public class CatalogController {
+
+    private final CatalogSyncService catalogSyncService;
+
+    // Products, categories and units changed or deleted since the watermark; no watermark returns the full catalog
+    @GetMapping("/changes")
+    public ResponseEntity<CatalogChangesResponse> getChanges(
+            @RequestAttribute("businessId") UUID businessId,
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "1000") int limit) {
+
+        return ResponseEntity.ok(catalogSyncService.getChanges(businessId, since, limit));
+    }
+}
@@ -1,11 +1,25 @@
 package com.sbms.trading_service.controller;
 
+import com.sbms.trading_service.dto.ChartDataPointDto;
 import com.sbms.trading_service.dto.DashboardSummaryDto;
+import com.sbms.trading_service.dto.SalesComparisonRow;
+import com.sbms.trading_service.enums.ChartGranularity;
+import com.sbms.trading_service.enums.SalesComparison;
+import com.sbms.trading_service.enums.SalesDimension;
+import com.sbms.trading_service.service.DashboardCache;
+import com.sbms.trading_service.service.DashboardEventStream;
 import com.sbms.trading_service.service.DashboardService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -14,13 +28,57 @@ import java.util.UUID;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final DashboardEventStream dashboardEventStream;
 
     @GetMapping("/summary")
     public ResponseEntity<DashboardSummaryDto> getDashboardSummary(
             @RequestAttribute("businessId") UUID businessId,
-            @RequestParam(defaultValue = "today") String period) {
-        
-        DashboardSummaryDto summary = dashboardService.getDashboardSummary(businessId, period);
-        return ResponseEntity.ok(summary);
+            @RequestParam(defaultValue = "today") String period,
+            WebRequest request) {
+
+        DashboardCache.DashboardSnapshot snapshot = dashboardService.getDashboardSnapshot(businessId, period);
+        // Matching If-None-Match: Spring answers 304 with no body
+        if (request.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(snapshot.summary());
+    }
+
+    // Sales chart for any range; granularity (hour/day/week/month) is picked from the range unless given
+    @GetMapping("/chart")
+    public ResponseEntity<List<ChartDataPointDto>> getSalesChart(
+            @RequestAttribute("businessId") UUID businessId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(required = false) String granularity) {
+
+        ChartGranularity unit = granularity != null ? ChartGranularity.valueOf(granularity.toUpperCase()) : null;
+        return ResponseEntity.ok(dashboardService.getSalesChart(businessId, start, end, unit));
+    }
+
+    // Period-over-period sales, e.g. ?comparison=year_over_year&groupBy=product
+    @GetMapping("/compare")
+    public ResponseEntity<List<SalesComparisonRow>> compareSales(
+            @RequestAttribute("businessId") UUID businessId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(defaultValue = "month_over_month") String comparison,
+            @RequestParam(defaultValue = "total") String groupBy,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) Long partyId,
+            @RequestParam(required = false) Integer limit) {
+
+        return ResponseEntity.ok(dashboardService.compareSales(businessId, start, end,
+                SalesComparison.valueOf(comparison.toUpperCase()), SalesDimension.valueOf(groupBy.toUpperCase()),
+                productId, partyId, limit));
+    }
+
+    // Live deltas (sales, low-stock crossings) on top of /summary; a "resync" event means reload the summary
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDashboard(@RequestAttribute("businessId") UUID businessId) {
+        return dashboardEventStream.subscribe(businessId);
     }
 }
@@ -1,9 +1,15 @@
 package com.sbms.trading_service.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,14 +19,23 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.sbms.trading_service.dto.BulkProductRequest;
 import com.sbms.trading_service.dto.ProductHistoryResponse;
 import com.sbms.trading_service.dto.ProductImportDto;
+import com.sbms.trading_service.dto.ProductImportJobResponse;
 import com.sbms.trading_service.dto.ProductRequest;
 import com.sbms.trading_service.dto.ProductResponse;
+import com.sbms.trading_service.dto.ProductScanRequest;
+import com.sbms.trading_service.dto.ProductScanResponse;
+import com.sbms.trading_service.dto.ProductSuggestionDto;
+import com.sbms.trading_service.dto.DemandForecastResponse;
+import com.sbms.trading_service.dto.OffsetPage;
+import com.sbms.trading_service.dto.StockLevelResponse;
+import com.sbms.trading_service.dto.StockMovementResponse;
 import com.sbms.trading_service.service.ProductService;
 
 import lombok.RequiredArgsConstructor;
@@ -50,6 +65,25 @@ public class ProductController {
         return ResponseEntity.ok(productService.bulkAddProducts(request.getProducts(), businessId));
     }
 
+    // Large catalogs: the CSV or JSON file is the raw request body and is imported in the background
+    @PostMapping(value = "/import", consumes = { "text/csv", MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<ProductImportJobResponse> importProducts(
+            @RequestAttribute("businessId") UUID businessId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+
+        String format = contentType.toLowerCase().contains("csv") ? "csv" : "json";
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(productService.startImport(businessId, format, body));
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ProductImportJobResponse> getImportJob(
+            @RequestAttribute("businessId") UUID businessId,
+            @PathVariable Long jobId) {
+
+        return ResponseEntity.ok(productService.getImportJob(jobId, businessId));
+    }
+
     @GetMapping
     public ResponseEntity<List<ProductResponse>> getMyProducts(
             @RequestAttribute("businessId") UUID businessId,
@@ -57,6 +91,40 @@ public class ProductController {
         
         return ResponseEntity.ok(productService.getMyProducts(businessId, search));
     }
+
+    // Paginated, sortable listing, selected when the client passes ?size=
+    @GetMapping(params = "size")
+    public ResponseEntity<OffsetPage<ProductResponse>> getProductsPage(
+            @RequestAttribute("businessId") UUID businessId,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "false") boolean lowStock,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam int size,
+            @RequestParam(defaultValue = "name") String sort,
+            @RequestParam(defaultValue = "asc") String direction) {
+
+        return ResponseEntity.ok(productService.getProductsPage(businessId, search, categoryId, lowStock, page, size, sort, direction));
+    }
+
+    // Type-ahead for billing: prefix match on name words, SKU and HSN
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestionDto>> suggestProducts(
+            @RequestAttribute("businessId") UUID businessId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(productService.suggestProducts(businessId, q, limit));
+    }
+
+    // Exact SKU/barcode match for a whole scanned basket in one call
+    @PostMapping("/scan")
+    public ResponseEntity<ProductScanResponse> scanProducts(
+            @RequestAttribute("businessId") UUID businessId,
+            @RequestBody ProductScanRequest request) {
+
+        return ResponseEntity.ok(productService.scanProducts(businessId, request.getCodes()));
+    }
     
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponse> updateProduct(
@@ -85,4 +153,38 @@ public class ProductController {
         
         return ResponseEntity.ok(productService.getProductTransactionHistory(id, businessId));
     }
-}
\ No newline at end of file
+
+    // Stock as it was at a point in time (defaults to now)
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<StockLevelResponse> getStockAt(
+            @RequestAttribute("businessId") UUID businessId,
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+
+        return ResponseEntity.ok(productService.getStockAt(id, businessId, at != null ? at : LocalDateTime.now()));
+    }
+
+    // Expected demand over the next ?days (e.g. the supplier lead time) and how much to reorder to cover it plus minStock
+    @GetMapping("/{id}/forecast")
+    public ResponseEntity<DemandForecastResponse> getDemandForecast(
+            @RequestAttribute("businessId") UUID businessId,
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "7") int days) {
+
+        return ResponseEntity.ok(productService.getDemandForecast(id, businessId, days));
+    }
+
+    // Ledger entries, newest first
+    @GetMapping("/{id}/movements")
+    public ResponseEntity<List<StockMovementResponse>> getStockMovements(
+            @RequestAttribute("businessId") UUID businessId,
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(30);
+        return ResponseEntity.ok(productService.getStockMovements(id, businessId, start, end, limit));
+    }
+}
@@ -3,6 +3,7 @@ package com.sbms.trading_service.controller;
 import java.util.UUID;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -11,7 +12,10 @@ import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.sbms.trading_service.dto.BulkTransactionRequest;
+import com.sbms.trading_service.dto.BulkTransactionResponse;
 import com.sbms.trading_service.dto.TransactionRequest;
 import com.sbms.trading_service.service.TransactionService;
 
@@ -22,7 +26,9 @@ import java.util.List;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sbms.trading_service.dto.ApiResponse;
+import com.sbms.trading_service.dto.CursorPage;
 import com.sbms.trading_service.dto.TransactionResponse;
 
 import lombok.RequiredArgsConstructor;
@@ -32,7 +38,10 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class TransactionController {
 
+    private static final int STREAM_PAGE_SIZE = 200;
+
     private final TransactionService transactionService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<ApiResponse<TransactionResponse>> createTransaction(
@@ -44,6 +53,15 @@ public class TransactionController {
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(response));
     }
 
+    // Offline POS catch-up: many bills in one call, each with a client idempotency key
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkTransactionResponse>> bulkCreateTransactions(
+            @RequestAttribute("businessId") UUID businessId,
+            @RequestBody BulkTransactionRequest request) {
+        BulkTransactionResponse response = transactionService.bulkCreateTransactions(request.getTransactions(), businessId);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<TransactionResponse>> updateTransaction(
             @PathVariable Long id,
@@ -83,6 +101,47 @@ public class TransactionController {
         return ResponseEntity.ok(ApiResponse.success(results));
     }
 
+    // Cursor-paginated search, selected when the client passes ?size=
+    @GetMapping(value = "/search", params = "size")
+    public ResponseEntity<ApiResponse<CursorPage<TransactionResponse>>> searchTransactionsPage(
+            @RequestAttribute("businessId") UUID businessId,
+            @RequestParam(required = false) String query,
+            @RequestParam(defaultValue = "All") String type,
+            @RequestParam(defaultValue = "Today") String dateRange,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam int size) {
+
+        CursorPage<TransactionResponse> page = transactionService.searchTransactionsPage(businessId, query, type, dateRange, startDate, endDate, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(page));
+    }
+
+    // Streams the whole result as NDJSON, one keyset page at a time, so memory stays bounded by the page size
+    @GetMapping(value = "/search/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamTransactions(
+            @RequestAttribute("businessId") UUID businessId,
+            @RequestParam(required = false) String query,
+            @RequestParam(defaultValue = "All") String type,
+            @RequestParam(defaultValue = "Today") String dateRange,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        StreamingResponseBody body = out -> {
+            String cursor = null;
+            do {
+                CursorPage<TransactionResponse> page = transactionService.searchTransactionsPage(businessId, query, type, dateRange, startDate, endDate, cursor, STREAM_PAGE_SIZE);
+                for (TransactionResponse item : page.getItems()) {
+                    out.write(objectMapper.writeValueAsBytes(item));
+                    out.write('\n');
+                }
+                out.flush();
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
     @GetMapping("/party/{partyId}")
     public ResponseEntity<ApiResponse<List<TransactionResponse>>> getTransactionsByParty(
             @RequestAttribute("businessId") UUID businessId,
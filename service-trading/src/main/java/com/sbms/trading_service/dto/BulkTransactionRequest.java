@@ -0,0 +1,16 @@
+package com.sbms.trading_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransactionRequest {
+    private List<TransactionRequest> transactions; // Each needs a client-generated idempotencyKey
+}
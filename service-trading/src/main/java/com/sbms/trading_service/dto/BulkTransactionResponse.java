@@ -0,0 +1,31 @@
+package com.sbms.trading_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransactionResponse {
+    private int created;
+    private int duplicates;
+    private int failed;
+    private List<ItemResult> results; // Same order as the request
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private String idempotencyKey;
+        private String status; // CREATED, DUPLICATE, FAILED
+        private Long transactionId; // New id, or the existing one for DUPLICATE
+        private String error;
+    }
+}
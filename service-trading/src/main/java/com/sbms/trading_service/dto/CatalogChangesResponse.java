@@ -0,0 +1,28 @@
+package com.sbms.trading_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangesResponse {
+    // Rows created or changed since the watermark; apply as upserts by id
+    private List<ProductResponse> products;
+    private List<CategoryDto> categories;
+    private List<UnitDto> units;
+
+    // Rows deleted since the watermark
+    private List<Long> deletedProductIds;
+    private List<Long> deletedCategoryIds;
+    private List<Long> deletedUnitIds;
+
+    private String watermark; // Pass back as ?since= on the next sync
+    private boolean hasMore; // More product changes are waiting; sync again right away
+    private boolean reset; // This is a full catalog: drop the local copy before applying it
+}
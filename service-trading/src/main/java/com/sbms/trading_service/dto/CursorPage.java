@@ -0,0 +1,18 @@
+package com.sbms.trading_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor; // Pass back as ?cursor= to get the next page, null on the last page
+    private boolean hasMore;
+}
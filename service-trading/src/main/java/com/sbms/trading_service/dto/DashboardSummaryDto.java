@@ -1,5 +1,7 @@
 package com.sbms.trading_service.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,4 +17,7 @@ public class DashboardSummaryDto {
     private DashboardStatsDto stats;
     private List<ChartDataPointDto> chartData;
     private List<LowStockItemDto> lowStockItems;
+    // Sections that timed out or failed and hold fallback values; null when the summary is complete
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> degradedSections;
 }
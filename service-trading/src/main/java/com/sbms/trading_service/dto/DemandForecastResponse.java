@@ -0,0 +1,33 @@
+package com.sbms.trading_service.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DemandForecastResponse {
+    private Long productId;
+    private BigDecimal currentStock;
+    private BigDecimal minStock;
+    private int observedDays;  // Days of history behind the forecast; below 14 the weekday pattern is still rough
+    private BigDecimal soldToday;
+    private List<DayForecast> days;  // Expected demand from today (remaining part) over the horizon
+    private BigDecimal horizonDemand;
+    private BigDecimal suggestedReorderQty;  // Tops stock up to horizon demand plus minStock
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class DayForecast {
+        private LocalDate date;
+        private BigDecimal qty;
+    }
+}
@@ -0,0 +1,20 @@
+package com.sbms.trading_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OffsetPage<T> {
+    private List<T> items;
+    private int page; // Zero-based
+    private int size;
+    private long totalItems;
+    private int totalPages;
+}
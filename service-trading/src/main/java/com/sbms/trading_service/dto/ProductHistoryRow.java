@@ -0,0 +1,21 @@
+package com.sbms.trading_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One priced bill line of a product, with the bill's party and date
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductHistoryRow {
+    private Long transactionId;
+    private String partyName;
+    private LocalDate date;
+    private BigDecimal qty;
+    private BigDecimal price;
+    private BigDecimal amount;
+}
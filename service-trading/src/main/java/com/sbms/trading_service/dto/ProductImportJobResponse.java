@@ -0,0 +1,29 @@
+package com.sbms.trading_service.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportJobResponse {
+    private Long jobId;
+    private String status;  // QUEUED, RUNNING, COMPLETED or FAILED
+    private String format;
+    private long processedRows;
+    private long insertedRows;
+    private long updatedRows;  // Existing SKUs; catalog fields only
+    private long failedRows;
+    @JsonRawValue
+    private String errors;  // [{row, message}] for the first failed rows
+    private String message;  // Why a FAILED job stopped
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -1,10 +1,16 @@
 package com.sbms.trading_service.dto;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.UUID;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
+// The all-args constructor (field order) is the JPQL projection in ProductRepository.findResponses
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ProductResponse {
 
     private Long id;
@@ -28,4 +34,6 @@ public class ProductResponse {
     
     private Double gstRate;
     private String hsn;
+
+    private LocalDateTime updatedAt;
 }
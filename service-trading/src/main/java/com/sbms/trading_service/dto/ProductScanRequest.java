@@ -0,0 +1,17 @@
+package com.sbms.trading_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductScanRequest {
+    // SKUs / barcodes as scanned; duplicates are resolved once
+    private List<String> codes;
+}
@@ -0,0 +1,19 @@
+package com.sbms.trading_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductScanResponse {
+    // Code -> product, in scan order
+    private Map<String, ProductSuggestionDto> found;
+    private List<String> notFound;
+}
@@ -0,0 +1,23 @@
+package com.sbms.trading_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Compact product for POS type-ahead; no category/unit entities behind it
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestionDto {
+    private Long id;
+    private String name;
+    private String sku;
+    private String hsn;
+    private BigDecimal sellPrice;
+    private Double gstRate;
+    private String unitSymbol;
+}
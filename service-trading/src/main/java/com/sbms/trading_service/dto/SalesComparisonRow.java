@@ -0,0 +1,21 @@
+package com.sbms.trading_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesComparisonRow {
+    private String key;  // "total", a date (day of the current range), product ID or party ID ("walk-in" for none)
+    private BigDecimal current;  // Sales amount in the requested range
+    private BigDecimal previous;  // Sales amount in the comparison range
+    private BigDecimal currentQty;
+    private BigDecimal previousQty;
+    private BigDecimal changePercent;  // null when there were no previous sales
+}
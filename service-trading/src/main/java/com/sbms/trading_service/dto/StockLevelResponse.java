@@ -0,0 +1,19 @@
+package com.sbms.trading_service.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevelResponse {
+    private Long productId;
+    private LocalDateTime at;
+    private BigDecimal stock;
+}
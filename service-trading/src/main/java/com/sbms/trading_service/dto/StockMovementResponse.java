@@ -0,0 +1,21 @@
+package com.sbms.trading_service.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementResponse {
+    private Long id;
+    private LocalDateTime date;
+    private String type;
+    private BigDecimal quantity;
+    private Long transactionId;
+}
@@ -0,0 +1,21 @@
+package com.sbms.trading_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Flat projection of a bill line, loaded for a whole page of bills at once
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionLineRow {
+    private Long transactionId;
+    private Long productId;
+    private String productName;
+    private boolean free;
+    private BigDecimal qty;
+    private BigDecimal price;
+    private BigDecimal amount;
+}
@@ -0,0 +1,18 @@
+package com.sbms.trading_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Flat projection of an applied offer, loaded for a whole page of bills at once
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionOfferRow {
+    private Long transactionId;
+    private String offerId;
+    private String offerName;
+    private BigDecimal discountAmount;
+}
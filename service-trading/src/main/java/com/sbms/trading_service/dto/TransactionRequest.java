@@ -8,6 +8,7 @@ import lombok.Data;
 
 @Data
 public class TransactionRequest {
+    private String idempotencyKey; // Client-generated, required for bulk ingest
     private Long partyId;
     private String partyName; // Store name for history/search
     private LocalDate date;
@@ -0,0 +1,26 @@
+package com.sbms.trading_service.entity;
+
+import com.sbms.trading_service.enums.CatalogEntityType;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Deleted catalog rows, so delta sync can tell clients to drop them. Purged after the sync retention
+@Entity
+@Table(name = "catalog_tombstones", indexes = {
+        @Index(name = "idx_catalog_tombstones_business_updated", columnList = "business_id, updated_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@AttributeOverride(name = "id", column = @Column(name = "tombstone_id"))
+public class CatalogTombstone extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private CatalogEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+}
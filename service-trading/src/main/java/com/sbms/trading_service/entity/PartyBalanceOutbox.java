@@ -0,0 +1,54 @@
+package com.sbms.trading_service.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.sbms.trading_service.enums.OutboxStatus;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Pending party balance deltas, written in the same DB transaction as the bill
+// and delivered to service-parties by PartyBalanceOutboxRelay
+@Entity
+@Table(name = "party_balance_outbox", indexes = {
+        @Index(name = "idx_party_balance_outbox_status_next", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_party_balance_outbox_batch_key", columnList = "batch_key")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@AttributeOverride(name = "id", column = @Column(name = "outbox_id"))
+public class PartyBalanceOutbox extends BaseEntity {
+
+    @Column(name = "party_id", nullable = false)
+    private Long partyId;
+
+    @Column(name = "transaction_id")
+    private Long transactionId; // Source bill, for tracing only
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    // Idempotency key of the netted call this row was claimed into; kept across retries so
+    // service-parties applies the batch once even if a timed-out call actually landed
+    @Column(name = "batch_key", length = 36)
+    private String batchKey;
+}
@@ -5,7 +5,10 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Delta sync: keyset over (updated_at, product_id) within a business
+        @Index(name = "idx_products_business_updated", columnList = "business_id, updated_at, product_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
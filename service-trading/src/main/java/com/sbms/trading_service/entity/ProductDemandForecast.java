@@ -0,0 +1,43 @@
+package com.sbms.trading_service.entity;
+
+import java.time.LocalDate;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Exponential smoothing state of a product's daily demand, advanced by DemandForecaster as sales
+// are recorded; today's demand accumulates in openDemand until the day is closed
+@Entity
+@Table(name = "product_demand_forecasts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_demand_forecasts_product", columnNames = { "product_id" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AttributeOverride(name = "id", column = @Column(name = "forecast_id"))
+public class ProductDemandForecast extends BaseEntity {
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "open_day", nullable = false)
+    private LocalDate openDay;
+
+    @Column(name = "open_demand", nullable = false)
+    private double openDemand;
+
+    // Deseasonalised daily demand
+    @Column(nullable = false)
+    private double level;
+
+    // Multiplicative weekday factors, Monday first, averaging 1
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "weekday_factors", nullable = false)
+    private double[] weekdayFactors;
+
+    @Column(name = "observed_days", nullable = false)
+    private int observedDays;
+}
@@ -0,0 +1,48 @@
+package com.sbms.trading_service.entity;
+
+import java.time.LocalDateTime;
+
+import com.sbms.trading_service.enums.ImportJobStatus;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Progress of an asynchronous product import, updated by ProductImportEngine after every batch
+@Entity
+@Table(name = "product_import_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AttributeOverride(name = "id", column = @Column(name = "job_id"))
+public class ProductImportJob extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportJobStatus status;
+
+    @Column(nullable = false, length = 10)
+    private String format; // csv or json
+
+    @Column(name = "processed_rows", nullable = false)
+    private long processedRows;
+
+    @Column(name = "inserted_rows", nullable = false)
+    private long insertedRows;
+
+    @Column(name = "updated_rows", nullable = false)
+    private long updatedRows;
+
+    @Column(name = "failed_rows", nullable = false)
+    private long failedRows;
+
+    // JSON array of the first {row, message} errors; later failures are only counted
+    @Column(columnDefinition = "TEXT")
+    private String errors;
+
+    // Why a FAILED job stopped
+    @Column(columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
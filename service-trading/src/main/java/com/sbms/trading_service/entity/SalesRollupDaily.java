@@ -0,0 +1,35 @@
+package com.sbms.trading_service.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.sbms.trading_service.enums.TransactionType;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Bill totals per (business, day, type), kept current by every bill write (see SalesRollupStore)
+@Entity
+@Table(name = "sales_rollup_daily", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sales_rollup_daily_bucket", columnNames = { "business_id", "bucket_date", "type" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@AttributeOverride(name = "id", column = @Column(name = "rollup_id"))
+public class SalesRollupDaily extends BaseEntity {
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "bill_count", nullable = false)
+    private long billCount;
+}
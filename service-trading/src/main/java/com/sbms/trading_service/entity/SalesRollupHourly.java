@@ -0,0 +1,35 @@
+package com.sbms.trading_service.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.sbms.trading_service.enums.TransactionType;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Bill totals per (business, hour, type), kept current by every bill write (see SalesRollupStore)
+@Entity
+@Table(name = "sales_rollup_hourly", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sales_rollup_hourly_bucket", columnNames = { "business_id", "bucket_start", "type" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@AttributeOverride(name = "id", column = @Column(name = "rollup_id"))
+public class SalesRollupHourly extends BaseEntity {
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart; // Bill date at the hour the bill was entered
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "bill_count", nullable = false)
+    private long billCount;
+}
@@ -0,0 +1,35 @@
+package com.sbms.trading_service.entity;
+
+import java.math.BigDecimal;
+
+import com.sbms.trading_service.enums.StockMovementType;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Append-only stock ledger: one row per product per stock change, never updated or deleted
+@Entity
+@Table(name = "stock_movements", indexes = {
+        @Index(name = "idx_stock_movements_product_created", columnList = "product_id, created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@AttributeOverride(name = "id", column = @Column(name = "movement_id"))
+public class StockMovement extends BaseEntity {
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "transaction_id")
+    private Long transactionId; // Source bill, if any
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", nullable = false, length = 20)
+    private StockMovementType type;
+
+    // Signed change to current_stock
+    @Column(nullable = false, precision = 12, scale = 3)
+    private BigDecimal quantity;
+}
@@ -0,0 +1,30 @@
+package com.sbms.trading_service.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Stock of a product as of snapshot_at, written by StockSnapshotJob so point-in-time
+// queries only replay the movements after the nearest snapshot
+@Entity
+@Table(name = "stock_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_stock_snapshots_product_at", columnNames = { "product_id", "snapshot_at" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@AttributeOverride(name = "id", column = @Column(name = "snapshot_id"))
+public class StockSnapshot extends BaseEntity {
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "snapshot_at", nullable = false)
+    private LocalDateTime snapshotAt;
+
+    @Column(nullable = false, precision = 12, scale = 3)
+    private BigDecimal stock;
+}
@@ -12,7 +12,12 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_transactions_business_idempotency_key", columnNames = { "business_id", "idempotency_key" })
+}, indexes = {
+        // Serves the keyset-paginated search (business, date desc, id desc)
+        @Index(name = "idx_transactions_business_date_id", columnList = "business_id, transaction_date, transaction_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -57,6 +62,10 @@ public class Transaction extends BaseEntity {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
+    // Client-generated key so replayed offline bills are stored only once
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
     // Relations
     @OneToMany(mappedBy = "transaction", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<TransactionProduct> products = new ArrayList<>();
@@ -6,7 +6,9 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "transaction_offers")
+@Table(name = "transaction_offers", indexes = {
+        @Index(name = "idx_transaction_offers_transaction", columnList = "transaction_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
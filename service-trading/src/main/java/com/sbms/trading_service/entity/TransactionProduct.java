@@ -1,11 +1,18 @@
 package com.sbms.trading_service.entity;
 
 import java.math.BigDecimal;
+
+import com.sbms.trading_service.enums.TransactionType;
+
 import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "transaction_products")
+@Table(name = "transaction_products", indexes = {
+        @Index(name = "idx_transaction_products_transaction", columnList = "transaction_id"),
+        // Latest lines of a product and bill type first (product history); line ids grow with insertion
+        @Index(name = "idx_transaction_products_product_type_line", columnList = "product_id, type, tp_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -22,6 +29,12 @@ public class TransactionProduct extends BaseEntity {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal amount;
     
+    // Copy of the bill's type, so product history seeks straight to one type's lines. Set on every
+    // insert; nullable only because ddl-auto adds it to tables that already hold lines
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private TransactionType type;
+
     // Track if it was a free item
     @Column(name = "is_free")
     private boolean isFree = false;
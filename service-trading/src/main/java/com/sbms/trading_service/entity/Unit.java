@@ -3,12 +3,16 @@ package com.sbms.trading_service.entity;
 import jakarta.persistence.AttributeOverride;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 @Entity
-@Table(name = "units")
+@Table(name = "units", indexes = {
+        // Delta sync: rows changed since a watermark
+        @Index(name = "idx_units_business_updated", columnList = "business_id, updated_at")
+})
 @Data
 @EqualsAndHashCode(callSuper = true)
 @AttributeOverride(name = "id", column = @Column(name = "unit_id"))
@@ -0,0 +1,7 @@
+package com.sbms.trading_service.enums;
+
+public enum CatalogEntityType {
+    PRODUCT,
+    CATEGORY,
+    UNIT
+}
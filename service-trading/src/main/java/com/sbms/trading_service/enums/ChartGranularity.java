@@ -0,0 +1,41 @@
+package com.sbms.trading_service.enums;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+// Chart bucket size; the name in lower case is the Postgres date_trunc field
+public enum ChartGranularity {
+    HOUR,
+    DAY,
+    WEEK,
+    MONTH;
+
+    public String sqlUnit() {
+        return name().toLowerCase();
+    }
+
+    // Number of buckets a chart over [start, end] has at this size, counting partial buckets at both ends
+    public long buckets(LocalDate start, LocalDate end) {
+        long days = ChronoUnit.DAYS.between(start, end) + 1;
+        return switch (this) {
+            case HOUR -> days * 24;
+            case DAY -> days;
+            case WEEK -> days / 7 + 2;
+            case MONTH -> ChronoUnit.MONTHS.between(start.withDayOfMonth(1), end.withDayOfMonth(1)) + 1;
+        };
+    }
+
+    // Keeps a chart to a few dozen points for ranges up to a few years; longer ranges (and forced
+    // granularities) are bounded by the point limit in SalesChartEngine
+    public static ChartGranularity forRange(LocalDate start, LocalDate end) {
+        long days = ChronoUnit.DAYS.between(start, end) + 1;
+        if (days <= 2) {
+            return HOUR;
+        } else if (days <= 14) {
+            return DAY;
+        } else if (days <= 366) {
+            return WEEK;
+        }
+        return MONTH;
+    }
+}
@@ -0,0 +1,8 @@
+package com.sbms.trading_service.enums;
+
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
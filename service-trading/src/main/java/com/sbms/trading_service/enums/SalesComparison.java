@@ -0,0 +1,18 @@
+package com.sbms.trading_service.enums;
+
+import java.time.LocalDate;
+
+// Which earlier period a sales range is compared against
+public enum SalesComparison {
+    WEEK_OVER_WEEK,   // same weekdays last week
+    MONTH_OVER_MONTH,
+    YEAR_OVER_YEAR;
+
+    public LocalDate previous(LocalDate date) {
+        return switch (this) {
+            case WEEK_OVER_WEEK -> date.minusWeeks(1);
+            case MONTH_OVER_MONTH -> date.minusMonths(1);
+            case YEAR_OVER_YEAR -> date.minusYears(1);
+        };
+    }
+}
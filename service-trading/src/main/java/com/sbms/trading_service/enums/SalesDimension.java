@@ -0,0 +1,9 @@
+package com.sbms.trading_service.enums;
+
+// Grouping of a sales cube query
+public enum SalesDimension {
+    TOTAL,
+    DAY,
+    PRODUCT,
+    PARTY
+}
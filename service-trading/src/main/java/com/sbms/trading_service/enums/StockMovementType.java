@@ -0,0 +1,10 @@
+package com.sbms.trading_service.enums;
+
+public enum StockMovementType {
+    OPENING,     // Stock a product was created or imported with
+    SALE,
+    PURCHASE,
+    EDIT,        // Net change from editing a bill
+    REVERSAL,    // Deleted bill
+    ADJUSTMENT   // Manual stock correction from the product form
+}
@@ -0,0 +1,24 @@
+package com.sbms.trading_service.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.sbms.trading_service.entity.CatalogTombstone;
+
+public interface CatalogTombstoneRepository extends JpaRepository<CatalogTombstone, Long> {
+
+    @Query("SELECT t FROM CatalogTombstone t WHERE t.businessId = :businessId "
+            + "AND t.updatedAt > :after AND t.updatedAt <= :upTo")
+    List<CatalogTombstone> findChanged(@Param("businessId") UUID businessId, @Param("after") LocalDateTime after,
+            @Param("upTo") LocalDateTime upTo);
+
+    @Modifying
+    @Query("DELETE FROM CatalogTombstone t WHERE t.updatedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
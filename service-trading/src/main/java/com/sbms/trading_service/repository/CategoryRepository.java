@@ -1,14 +1,22 @@
 package com.sbms.trading_service.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.sbms.trading_service.entity.Category;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 	Optional<Category> findByNameAndBusinessId(String name, UUID businessId);
 	List<Category> findAllByBusinessId(UUID businessId);
+
+	// Delta sync window, served by idx_categories_business_updated
+	@Query("SELECT x FROM Category x WHERE x.businessId = :businessId AND x.updatedAt > :after AND x.updatedAt <= :upTo")
+	List<Category> findChanged(@Param("businessId") UUID businessId, @Param("after") LocalDateTime after,
+			@Param("upTo") LocalDateTime upTo);
 }
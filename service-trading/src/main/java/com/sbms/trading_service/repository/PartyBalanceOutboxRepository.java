@@ -0,0 +1,24 @@
+package com.sbms.trading_service.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.sbms.trading_service.entity.PartyBalanceOutbox;
+
+public interface PartyBalanceOutboxRepository extends JpaRepository<PartyBalanceOutbox, Long> {
+
+    // SKIP LOCKED lets several relay instances share the table without sending a row twice
+    @Query(value = "SELECT * FROM party_balance_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now "
+            + "ORDER BY outbox_id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<PartyBalanceOutbox> lockNextBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Every row of the given batches, so a retried batch is always resent whole under its key
+    @Query(value = "SELECT * FROM party_balance_outbox WHERE batch_key IN (:keys) AND status = 'PENDING' "
+            + "ORDER BY outbox_id FOR UPDATE", nativeQuery = true)
+    List<PartyBalanceOutbox> lockBatches(@Param("keys") Collection<String> keys);
+}
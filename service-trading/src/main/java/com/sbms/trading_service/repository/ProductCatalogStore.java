@@ -0,0 +1,15 @@
+package com.sbms.trading_service.repository;
+
+import java.util.List;
+
+import com.sbms.trading_service.entity.Product;
+
+// Custom fragment of ProductRepository for catalog imports
+public interface ProductCatalogStore {
+
+    // Inserts the products as one JDBC batch and sets the generated ids on them
+    void insertAll(List<Product> products);
+
+    // Overwrites the catalog fields (not stock) of existing products, matched by id and business
+    void updateCatalog(List<Product> products);
+}
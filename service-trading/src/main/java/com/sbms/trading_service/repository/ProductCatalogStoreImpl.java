@@ -0,0 +1,105 @@
+package com.sbms.trading_service.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sbms.trading_service.entity.Product;
+
+import lombok.RequiredArgsConstructor;
+
+// IDENTITY ids stop Hibernate from batching inserts, so catalog imports write through JDBC directly
+@RequiredArgsConstructor
+public class ProductCatalogStoreImpl implements ProductCatalogStore {
+
+    private static final String INSERT_PRODUCT_SQL =
+            "INSERT INTO products (product_name, category_id, unit_id, min_stock, buy_price, sell_price, mrp, "
+            + "gst_rate, hsn, sku, current_stock, business_id, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_CATALOG_SQL =
+            "UPDATE products SET product_name = ?, category_id = ?, unit_id = ?, min_stock = ?, buy_price = ?, "
+            + "sell_price = ?, mrp = ?, gst_rate = ?, hsn = ?, sku = ?, updated_at = ? "
+            + "WHERE product_id = ? AND business_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_PRODUCT_SQL, new String[] { "product_id" })) {
+                for (Product p : products) {
+                    setCatalogFields(ps, p);
+                    ps.setObject(11, p.getCurrentStock(), Types.NUMERIC);
+                    ps.setObject(12, p.getBusinessId(), Types.OTHER);
+                    ps.setObject(13, now, Types.TIMESTAMP);
+                    ps.setObject(14, now, Types.TIMESTAMP);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Long> keys = new ArrayList<>(products.size());
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    while (rs.next()) {
+                        keys.add(rs.getLong(1));
+                    }
+                }
+                return keys;
+            }
+        });
+
+        if (ids == null || ids.size() != products.size()) {
+            throw new RuntimeException("Product import did not return an id for every row");
+        }
+        for (int i = 0; i < products.size(); i++) {
+            products.get(i).setId(ids.get(i));
+        }
+    }
+
+    @Override
+    public void updateCatalog(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(UPDATE_CATALOG_SQL)) {
+                for (Product p : products) {
+                    setCatalogFields(ps, p);
+                    ps.setObject(11, now, Types.TIMESTAMP);
+                    ps.setObject(12, p.getId(), Types.BIGINT);
+                    ps.setObject(13, p.getBusinessId(), Types.OTHER);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                return null;
+            }
+        });
+    }
+
+    // Parameters 1-10, shared by insert and update
+    private static void setCatalogFields(PreparedStatement ps, Product p) throws SQLException {
+        ps.setObject(1, p.getName(), Types.VARCHAR);
+        ps.setObject(2, p.getCategory().getId(), Types.BIGINT);
+        ps.setObject(3, p.getUnit().getId(), Types.BIGINT);
+        ps.setObject(4, p.getMinStock(), Types.NUMERIC);
+        ps.setObject(5, p.getBuyPrice(), Types.NUMERIC);
+        ps.setObject(6, p.getSellPrice(), Types.NUMERIC);
+        ps.setObject(7, p.getMrp(), Types.NUMERIC);
+        ps.setObject(8, p.getGstRate(), Types.DOUBLE);
+        ps.setObject(9, p.getHsn(), Types.VARCHAR);
+        ps.setObject(10, p.getSku(), Types.VARCHAR);
+    }
+}
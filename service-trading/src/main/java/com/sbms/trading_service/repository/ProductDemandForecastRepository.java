@@ -0,0 +1,17 @@
+package com.sbms.trading_service.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.sbms.trading_service.entity.ProductDemandForecast;
+
+public interface ProductDemandForecastRepository extends JpaRepository<ProductDemandForecast, Long> {
+
+    List<ProductDemandForecast> findByBusinessIdAndProductIdIn(UUID businessId, Collection<Long> productIds);
+
+    Optional<ProductDemandForecast> findByProductIdAndBusinessId(Long productId, UUID businessId);
+}
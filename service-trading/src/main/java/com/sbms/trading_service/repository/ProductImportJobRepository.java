@@ -0,0 +1,20 @@
+package com.sbms.trading_service.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.sbms.trading_service.entity.ProductImportJob;
+import com.sbms.trading_service.enums.ImportJobStatus;
+
+public interface ProductImportJobRepository extends JpaRepository<ProductImportJob, Long> {
+
+    Optional<ProductImportJob> findByIdAndBusinessId(Long id, UUID businessId);
+
+    // Running jobs touch updated_at after every batch, so an older one belongs to a dead instance
+    boolean existsByBusinessIdAndStatusInAndUpdatedAtAfter(UUID businessId, Collection<ImportJobStatus> statuses,
+            LocalDateTime updatedAfter);
+}
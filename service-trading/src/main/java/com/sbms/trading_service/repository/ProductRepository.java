@@ -1,14 +1,25 @@
 package com.sbms.trading_service.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import com.sbms.trading_service.dto.LowStockItemDto;
+import com.sbms.trading_service.dto.ProductResponse;
+import com.sbms.trading_service.dto.ProductSuggestionDto;
 import com.sbms.trading_service.entity.Product;
 import com.sbms.trading_service.entity.Category;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductStockRepository, ProductCatalogStore {
 
     // Get all products for the dashboard list
     List<Product> findAllByBusinessId(UUID businessId);
@@ -16,10 +27,100 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Search bar logic (Find by Name)
     List<Product> findByBusinessIdAndNameContainingIgnoreCase(UUID businessId, String name);
 
+    // Product list rows straight from SQL, no entities or mapping. categoryId = null and pattern = null skip
+    // those filters; lowStock narrows to the set served by idx_products_low_stock. Sort by Product properties
+    @Query(value = "SELECT new com.sbms.trading_service.dto.ProductResponse(p.id, p.businessId, c.id, c.name, "
+            + "u.id, u.name, u.symbol, p.name, p.sku, p.currentStock, p.minStock, p.buyPrice, p.sellPrice, p.mrp, "
+            + "p.gstRate, p.hsn, p.updatedAt) "
+            + "FROM Product p JOIN p.category c JOIN p.unit u WHERE p.businessId = :businessId "
+            + "AND (:categoryId IS NULL OR c.id = :categoryId) "
+            + "AND (:lowStock = false OR p.currentStock <= p.minStock) "
+            + "AND (:pattern IS NULL OR LOWER(p.name) LIKE :pattern ESCAPE '\\')",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.businessId = :businessId "
+            + "AND (:categoryId IS NULL OR p.category.id = :categoryId) "
+            + "AND (:lowStock = false OR p.currentStock <= p.minStock) "
+            + "AND (:pattern IS NULL OR LOWER(p.name) LIKE :pattern ESCAPE '\\')")
+    Page<ProductResponse> findResponses(
+        @Param("businessId") UUID businessId,
+        @Param("categoryId") Long categoryId,
+        @Param("lowStock") boolean lowStock,
+        @Param("pattern") String pattern,
+        Pageable pageable
+    );
+
+    // Delta sync page: products changed after the (afterTime, afterId) keyset position and no later than upTo,
+    // in (updatedAt, id) order. Served by idx_products_business_updated
+    @Query("SELECT new com.sbms.trading_service.dto.ProductResponse(p.id, p.businessId, c.id, c.name, "
+            + "u.id, u.name, u.symbol, p.name, p.sku, p.currentStock, p.minStock, p.buyPrice, p.sellPrice, p.mrp, "
+            + "p.gstRate, p.hsn, p.updatedAt) "
+            + "FROM Product p JOIN p.category c JOIN p.unit u WHERE p.businessId = :businessId "
+            + "AND p.updatedAt <= :upTo "
+            + "AND (p.updatedAt > :afterTime OR (p.updatedAt = :afterTime AND p.id > :afterId)) "
+            + "ORDER BY p.updatedAt, p.id")
+    List<ProductResponse> findChangedResponses(
+        @Param("businessId") UUID businessId,
+        @Param("afterTime") LocalDateTime afterTime,
+        @Param("afterId") Long afterId,
+        @Param("upTo") LocalDateTime upTo,
+        Pageable pageable
+    );
+
+    // Product rows carry category and unit names, so renames must show up in their delta sync. Stamped with the
+    // caller's JVM time, like @UpdateTimestamp, so every updatedAt the sync compares comes from the same clock
+    @Modifying
+    @Query("UPDATE Product p SET p.updatedAt = :now WHERE p.category.id = :categoryId AND p.businessId = :businessId")
+    int touchByCategory(@Param("categoryId") Long categoryId, @Param("businessId") UUID businessId,
+            @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.updatedAt = :now WHERE p.unit.id = :unitId AND p.businessId = :businessId")
+    int touchByUnit(@Param("unitId") Long unitId, @Param("businessId") UUID businessId, @Param("now") LocalDateTime now);
+
+    // Row-locked read for whole-row edits: bills' current_stock increments wait until the edit commits,
+    // so the stock written back and the ADJUSTMENT ledger delta are computed from the latest value
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
+    // Load every product referenced by a bill (with category and unit) in one select
+    @Query("SELECT p FROM Product p JOIN FETCH p.category JOIN FETCH p.unit WHERE p.businessId = :businessId AND p.id IN :ids")
+    List<Product> findAllForBusinessByIdIn(@Param("businessId") UUID businessId, @Param("ids") Collection<Long> ids);
+
+    // Low-stock set, served by the partial index idx_products_low_stock (see DatabaseIndexInitializer).
+    // Most critical first: furthest below the minimum
+    @Query("SELECT new com.sbms.trading_service.dto.LowStockItemDto(p.id, p.name, p.currentStock, p.minStock, u.symbol) "
+            + "FROM Product p JOIN p.unit u WHERE p.businessId = :businessId AND p.currentStock <= p.minStock "
+            + "ORDER BY (p.currentStock - p.minStock), p.id")
+    List<LowStockItemDto> findMostCriticalLowStock(@Param("businessId") UUID businessId, Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.businessId = :businessId AND p.currentStock <= p.minStock")
+    long countLowStock(@Param("businessId") UUID businessId);
+
+    // Reads the stored levels, not the persistence context, so it sees JDBC stock updates in the same transaction
+    @Query("SELECT new com.sbms.trading_service.dto.LowStockItemDto(p.id, p.name, p.currentStock, p.minStock, u.symbol) "
+            + "FROM Product p JOIN p.unit u WHERE p.businessId = :businessId AND p.id IN :ids")
+    List<LowStockItemDto> findStockLevels(@Param("businessId") UUID businessId, @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.sbms.trading_service.dto.ProductSuggestionDto(p.id, p.name, p.sku, p.hsn, p.sellPrice, p.gstRate, u.symbol) "
+            + "FROM Product p JOIN p.unit u WHERE p.businessId = :businessId")
+    List<ProductSuggestionDto> findSuggestionsByBusinessId(@Param("businessId") UUID businessId);
+
+    // Scan lookup, served by the unique index idx_products_business_sku_code (see DatabaseIndexInitializer)
+    @Query("SELECT new com.sbms.trading_service.dto.ProductSuggestionDto(p.id, p.name, p.sku, p.hsn, p.sellPrice, p.gstRate, u.symbol) "
+            + "FROM Product p JOIN p.unit u WHERE p.businessId = :businessId AND p.sku IN :skus")
+    List<ProductSuggestionDto> findSuggestionsBySkuIn(@Param("businessId") UUID businessId, @Param("skus") Collection<String> skus);
+
+    boolean existsByBusinessIdAndSku(UUID businessId, String sku);
+    boolean existsByBusinessIdAndSkuAndIdNot(UUID businessId, String sku, Long id);
+
+    // [sku, id] of every product with a SKU, for matching import rows in memory
+    @Query("SELECT p.sku, p.id FROM Product p WHERE p.businessId = :businessId AND p.sku IS NOT NULL")
+    List<Object[]> findSkuIds(@Param("businessId") UUID businessId);
+
     long countByCategoryIdAndBusinessId(Long categoryId, UUID businessId);
     long countByUnitIdAndBusinessId(Long unitId, UUID businessId);
 
     @Modifying
-    @Query("UPDATE Product p SET p.category = :targetCat WHERE p.category = :sourceCat AND p.businessId = :businessId")
-    void updateCategoryForBusiness(Category sourceCat, Category targetCat, UUID businessId);
+    @Query("UPDATE Product p SET p.category = :targetCat, p.updatedAt = :now WHERE p.category = :sourceCat AND p.businessId = :businessId")
+    void updateCategoryForBusiness(Category sourceCat, Category targetCat, UUID businessId, LocalDateTime now);
 }
@@ -0,0 +1,18 @@
+package com.sbms.trading_service.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.sbms.trading_service.entity.StockMovement;
+
+// Custom fragment of ProductRepository for set-based stock changes
+public interface ProductStockRepository {
+
+    // Nets the movements per product, applies current_stock = current_stock + delta in one JDBC batch
+    // and appends every movement to the stock ledger in the same DB transaction. Every product moved
+    // is row-locked until commit, including those whose movements net to zero
+    void applyStockMovements(UUID businessId, List<StockMovement> movements);
+
+    // Ledger only, for changes already written to products (creation, manual edits)
+    void appendStockMovements(UUID businessId, List<StockMovement> movements);
+}
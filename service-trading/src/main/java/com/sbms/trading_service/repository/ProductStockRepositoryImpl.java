@@ -0,0 +1,96 @@
+package com.sbms.trading_service.repository;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sbms.trading_service.entity.StockMovement;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    private static final String ADJUST_STOCK_SQL =
+            "UPDATE products SET current_stock = current_stock + ?, updated_at = ? "
+            + "WHERE product_id = ? AND business_id = ?";
+
+    private static final String LOCK_PRODUCTS_SQL =
+            "SELECT product_id FROM products WHERE business_id = ? AND product_id = ANY(?) "
+            + "ORDER BY product_id FOR UPDATE";
+
+    private static final String INSERT_MOVEMENT_SQL =
+            "INSERT INTO stock_movements (business_id, product_id, transaction_id, movement_type, quantity, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int[] MOVEMENT_TYPES = {
+            Types.OTHER, Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.NUMERIC, Types.TIMESTAMP, Types.TIMESTAMP
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void applyStockMovements(UUID businessId, List<StockMovement> movements) {
+        // Ascending product id gives every bill the same row-lock order, so concurrent bills can't deadlock
+        Map<Long, BigDecimal> ordered = new TreeMap<>();
+        for (StockMovement movement : movements) {
+            if (isEffective(movement)) {
+                ordered.merge(movement.getProductId(), movement.getQuantity(), BigDecimal::add);
+            }
+        }
+
+        // Same clock as the JPA-managed timestamps, which catalog sync compares this against
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batchArgs = new ArrayList<>(ordered.size());
+        ordered.forEach((productId, delta) -> {
+            if (delta.compareTo(BigDecimal.ZERO) != 0) {
+                batchArgs.add(new Object[] { delta, now, productId, businessId });
+            }
+        });
+
+        // A product whose movements cancel out (sold and bought back in one bulk replay) gets no UPDATE, but
+        // its demand is still recorded under the row lock; lock the whole set first, in the same order
+        if (batchArgs.size() < ordered.size()) {
+            jdbcTemplate.queryForList(LOCK_PRODUCTS_SQL, Long.class, businessId, ordered.keySet().toArray(Long[]::new));
+        }
+
+        if (!batchArgs.isEmpty()) {
+            int[] updated = jdbcTemplate.batchUpdate(ADJUST_STOCK_SQL, batchArgs);
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    throw new RuntimeException("Product not found: " + batchArgs.get(i)[2]);
+                }
+            }
+        }
+
+        appendStockMovements(businessId, movements);
+    }
+
+    @Override
+    public void appendStockMovements(UUID businessId, List<StockMovement> movements) {
+        // Same clock as the JPA-managed timestamps, so snapshot cutoffs line up
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batchArgs = new ArrayList<>(movements.size());
+        for (StockMovement movement : movements) {
+            if (isEffective(movement)) {
+                batchArgs.add(new Object[] { businessId, movement.getProductId(), movement.getTransactionId(),
+                        movement.getType().name(), movement.getQuantity(), now, now });
+            }
+        }
+
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MOVEMENT_SQL, batchArgs, MOVEMENT_TYPES);
+        }
+    }
+
+    private boolean isEffective(StockMovement movement) {
+        return movement.getQuantity() != null && movement.getQuantity().compareTo(BigDecimal.ZERO) != 0;
+    }
+}
@@ -0,0 +1,17 @@
+package com.sbms.trading_service.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Custom fragment of TransactionRepository: streams sale lines as plain rows for in-memory analytics
+public interface SalesLineReader {
+
+    record SaleLine(long transactionId, LocalDate date, long productId, Long partyId, BigDecimal amount,
+            BigDecimal qty) {
+    }
+
+    // Every line of the business's SALE bills, ordered by transaction; call inside a transaction so the cursor streams
+    void forEachSaleLine(UUID businessId, Consumer<SaleLine> consumer);
+}
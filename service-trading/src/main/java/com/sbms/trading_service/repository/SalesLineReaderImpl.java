@@ -0,0 +1,36 @@
+package com.sbms.trading_service.repository;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class SalesLineReaderImpl implements SalesLineReader {
+
+    private static final String SALE_LINES_SQL =
+            "SELECT t.transaction_id, t.transaction_date, tp.product_id, t.party_id, tp.amount, tp.qty "
+            + "FROM transactions t JOIN transaction_products tp ON tp.transaction_id = t.transaction_id "
+            + "WHERE t.business_id = ? AND t.type = 'SALE' ORDER BY t.transaction_id";
+
+    // Postgres only uses a cursor (instead of buffering the whole result) with a fetch size and autocommit off
+    private static final int FETCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void forEachSaleLine(UUID businessId, Consumer<SaleLine> consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SALE_LINES_SQL);
+            ps.setObject(1, businessId);
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(new SaleLine(rs.getLong(1), rs.getObject(2, LocalDate.class),
+                rs.getLong(3), rs.getObject(4, Long.class), rs.getBigDecimal(5), rs.getBigDecimal(6))));
+    }
+}
@@ -0,0 +1,25 @@
+package com.sbms.trading_service.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.sbms.trading_service.entity.SalesRollupDaily;
+import com.sbms.trading_service.enums.TransactionType;
+
+public interface SalesRollupDailyRepository extends JpaRepository<SalesRollupDaily, Long>, SalesRollupStore {
+
+    List<SalesRollupDaily> findByBusinessIdAndTypeAndBucketDateBetween(UUID businessId, TransactionType type,
+            LocalDate start, LocalDate end);
+
+    // Chart points as [bucket start, total] for day/week/month buckets, only for buckets with sales
+    @Query(value = "SELECT date_trunc(CAST(:unit AS text), CAST(bucket_date AS timestamp)) AS bucket, SUM(total_amount) "
+            + "FROM sales_rollup_daily WHERE business_id = :businessId AND type = :type "
+            + "AND bucket_date BETWEEN :startDate AND :endDate GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<Object[]> sumByBucket(@Param("businessId") UUID businessId, @Param("type") String type,
+            @Param("unit") String unit, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,25 @@
+package com.sbms.trading_service.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.sbms.trading_service.entity.SalesRollupHourly;
+import com.sbms.trading_service.enums.TransactionType;
+
+public interface SalesRollupHourlyRepository extends JpaRepository<SalesRollupHourly, Long> {
+
+    List<SalesRollupHourly> findByBusinessIdAndTypeAndBucketStartBetween(UUID businessId, TransactionType type,
+            LocalDateTime start, LocalDateTime end);
+
+    // Chart points as [bucket start, total] for hour buckets, only for buckets with sales
+    @Query(value = "SELECT date_trunc(CAST(:unit AS text), bucket_start) AS bucket, SUM(total_amount) "
+            + "FROM sales_rollup_hourly WHERE business_id = :businessId AND type = :type "
+            + "AND bucket_start >= :start AND bucket_start < :end GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<Object[]> sumByBucket(@Param("businessId") UUID businessId, @Param("type") String type,
+            @Param("unit") String unit, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
@@ -0,0 +1,29 @@
+package com.sbms.trading_service.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import com.sbms.trading_service.enums.TransactionType;
+
+// Custom fragment of SalesRollupDailyRepository that maintains both rollup tables
+public interface SalesRollupStore {
+
+    /**
+     * One bill's contribution to the rollups: bills = +1 when a bill is booked, -1 when it is
+     * removed (amount negated accordingly). hour is the hour the bill was entered.
+     */
+    record Entry(LocalDate date, int hour, TransactionType type, BigDecimal amount, int bills) {
+    }
+
+    // Nets the entries per bucket and upserts them into the hourly and daily tables in one batch each
+    void applyRollupEntries(UUID businessId, List<Entry> entries);
+
+    // Businesses with transactions or rollup rows, i.e. everything a full rebuild has to visit
+    List<UUID> findRollupBusinessIds();
+
+    // Recomputes one business's rows in both tables from its transactions; blocks only that business's
+    // incremental writers, and only until the rebuild commits
+    void rebuildRollups(UUID businessId);
+}
@@ -0,0 +1,147 @@
+package com.sbms.trading_service.repository;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import com.sbms.trading_service.enums.TransactionType;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class SalesRollupStoreImpl implements SalesRollupStore {
+
+    private static final String UPSERT_HOURLY_SQL =
+            "INSERT INTO sales_rollup_hourly (business_id, bucket_start, type, total_amount, bill_count, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (business_id, bucket_start, type) DO UPDATE SET "
+            + "total_amount = sales_rollup_hourly.total_amount + EXCLUDED.total_amount, "
+            + "bill_count = sales_rollup_hourly.bill_count + EXCLUDED.bill_count, "
+            + "updated_at = EXCLUDED.updated_at";
+
+    private static final String UPSERT_DAILY_SQL =
+            "INSERT INTO sales_rollup_daily (business_id, bucket_date, type, total_amount, bill_count, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (business_id, bucket_date, type) DO UPDATE SET "
+            + "total_amount = sales_rollup_daily.total_amount + EXCLUDED.total_amount, "
+            + "bill_count = sales_rollup_daily.bill_count + EXCLUDED.bill_count, "
+            + "updated_at = EXCLUDED.updated_at";
+
+    private static final int[] HOURLY_TYPES = { Types.OTHER, Types.TIMESTAMP, Types.VARCHAR, Types.NUMERIC,
+            Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP };
+    private static final int[] DAILY_TYPES = { Types.OTHER, Types.DATE, Types.VARCHAR, Types.NUMERIC,
+            Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP };
+
+    // Writers hold their business's advisory lock shared and a rebuild holds it exclusively, both until commit:
+    // a rebuild waits for bills already applied, and bills applied after it add on top of the rebuilt rows.
+    // The first key keeps these locks apart from any other advisory locks on the database
+    private static final int ROLLUP_LOCK_CLASS = 0x524f4c4c;
+    private static final String LOCK_SHARED_SQL = "SELECT pg_advisory_xact_lock_shared(?, hashtext(?))";
+    private static final String LOCK_EXCLUSIVE_SQL = "SELECT pg_advisory_xact_lock(?, hashtext(?))";
+
+    private static final String BUSINESS_IDS_SQL =
+            "SELECT DISTINCT business_id FROM transactions UNION SELECT business_id FROM sales_rollup_daily";
+
+    private static final String[] REBUILD_SQL = {
+            "DELETE FROM sales_rollup_hourly WHERE business_id = ?",
+            "DELETE FROM sales_rollup_daily WHERE business_id = ?",
+            "INSERT INTO sales_rollup_hourly (business_id, bucket_start, type, total_amount, bill_count, created_at, updated_at) "
+                    + "SELECT business_id, transaction_date + make_interval(hours => CAST(EXTRACT(HOUR FROM created_at) AS int)), "
+                    + "type, SUM(total_amount), COUNT(*), now(), now() FROM transactions WHERE business_id = ? "
+                    + "GROUP BY business_id, transaction_date + make_interval(hours => CAST(EXTRACT(HOUR FROM created_at) AS int)), type",
+            "INSERT INTO sales_rollup_daily (business_id, bucket_date, type, total_amount, bill_count, created_at, updated_at) "
+                    + "SELECT business_id, transaction_date, type, SUM(total_amount), COUNT(*), now(), now() FROM transactions "
+                    + "WHERE business_id = ? GROUP BY business_id, transaction_date, type"
+    };
+
+    // Fixed bucket order keeps concurrent bills from deadlocking on the same rollup rows
+    private static final Comparator<HourKey> HOUR_ORDER =
+            Comparator.comparing(HourKey::bucket).thenComparing(HourKey::type);
+    private static final Comparator<DayKey> DAY_ORDER =
+            Comparator.comparing(DayKey::bucket).thenComparing(DayKey::type);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void applyRollupEntries(UUID businessId, List<Entry> entries) {
+        Map<HourKey, Totals> hourly = new TreeMap<>(HOUR_ORDER);
+        Map<DayKey, Totals> daily = new TreeMap<>(DAY_ORDER);
+        for (Entry entry : entries) {
+            BigDecimal amount = entry.amount() != null ? entry.amount() : BigDecimal.ZERO;
+            hourly.merge(new HourKey(entry.date().atTime(entry.hour(), 0), entry.type()),
+                    new Totals(amount, entry.bills()), Totals::plus);
+            daily.merge(new DayKey(entry.date(), entry.type()), new Totals(amount, entry.bills()), Totals::plus);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> hourlyArgs = new ArrayList<>();
+        hourly.forEach((key, totals) -> {
+            if (!totals.isEmpty()) {
+                hourlyArgs.add(new Object[] { businessId, key.bucket(), key.type().name(), totals.amount(),
+                        totals.bills(), now, now });
+            }
+        });
+        List<Object[]> dailyArgs = new ArrayList<>();
+        daily.forEach((key, totals) -> {
+            if (!totals.isEmpty()) {
+                dailyArgs.add(new Object[] { businessId, key.bucket(), key.type().name(), totals.amount(),
+                        totals.bills(), now, now });
+            }
+        });
+
+        if (hourlyArgs.isEmpty() && dailyArgs.isEmpty()) {
+            return;
+        }
+        lock(LOCK_SHARED_SQL, businessId);
+        if (!hourlyArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_HOURLY_SQL, hourlyArgs, HOURLY_TYPES);
+        }
+        if (!dailyArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_DAILY_SQL, dailyArgs, DAILY_TYPES);
+        }
+    }
+
+    @Override
+    public List<UUID> findRollupBusinessIds() {
+        return jdbcTemplate.queryForList(BUSINESS_IDS_SQL, UUID.class);
+    }
+
+    @Override
+    public void rebuildRollups(UUID businessId) {
+        // Must run inside a transaction so the lock is held until the new rows commit
+        lock(LOCK_EXCLUSIVE_SQL, businessId);
+        for (String sql : REBUILD_SQL) {
+            jdbcTemplate.update(sql, ps -> ps.setObject(1, businessId, Types.OTHER));
+        }
+    }
+
+    private void lock(String sql, UUID businessId) {
+        jdbcTemplate.query(sql, (ResultSetExtractor<Void>) rs -> null, ROLLUP_LOCK_CLASS, businessId.toString());
+    }
+
+    private record HourKey(LocalDateTime bucket, TransactionType type) {
+    }
+
+    private record DayKey(LocalDate bucket, TransactionType type) {
+    }
+
+    private record Totals(BigDecimal amount, long bills) {
+        Totals plus(Totals other) {
+            return new Totals(amount.add(other.amount), bills + other.bills);
+        }
+
+        boolean isEmpty() {
+            return amount.compareTo(BigDecimal.ZERO) == 0 && bills == 0;
+        }
+    }
+}
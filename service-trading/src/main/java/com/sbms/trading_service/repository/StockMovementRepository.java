@@ -0,0 +1,31 @@
+package com.sbms.trading_service.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.sbms.trading_service.entity.StockMovement;
+
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    // Net change in (from, to]
+    @Query("SELECT COALESCE(SUM(m.quantity), 0) FROM StockMovement m "
+            + "WHERE m.productId = :productId AND m.createdAt > :from AND m.createdAt <= :to")
+    BigDecimal sumBetween(@Param("productId") Long productId, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    // Net change after a point in time, to walk back from current_stock
+    @Query("SELECT COALESCE(SUM(m.quantity), 0) FROM StockMovement m WHERE m.productId = :productId AND m.createdAt > :after")
+    BigDecimal sumAfter(@Param("productId") Long productId, @Param("after") LocalDateTime after);
+
+    @Query("SELECT m FROM StockMovement m WHERE m.productId = :productId AND m.businessId = :businessId "
+            + "AND m.createdAt BETWEEN :from AND :to ORDER BY m.createdAt DESC, m.id DESC")
+    List<StockMovement> findHistory(@Param("productId") Long productId, @Param("businessId") UUID businessId,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to, Pageable pageable);
+}
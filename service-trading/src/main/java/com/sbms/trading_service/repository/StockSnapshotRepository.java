@@ -0,0 +1,35 @@
+package com.sbms.trading_service.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.sbms.trading_service.entity.StockSnapshot;
+
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+
+    Optional<StockSnapshot> findFirstByProductIdAndSnapshotAtLessThanEqualOrderBySnapshotAtDesc(Long productId,
+            LocalDateTime at);
+
+    /**
+     * Snapshots stock as of :cutoff for every product that has none yet or has moved since its
+     * last snapshot. Stock at the cutoff is current_stock minus the movements after it; products
+     * and ledger rows are written in the same DB transaction, so one statement sees both consistently.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stock_snapshots (business_id, product_id, snapshot_at, stock, created_at, updated_at) "
+            + "SELECT p.business_id, p.product_id, :cutoff, "
+            + "       p.current_stock - COALESCE((SELECT SUM(m.quantity) FROM stock_movements m "
+            + "                                   WHERE m.product_id = p.product_id AND m.created_at > :cutoff), 0), "
+            + "       now(), now() "
+            + "FROM products p "
+            + "WHERE NOT EXISTS (SELECT 1 FROM stock_snapshots s WHERE s.product_id = p.product_id) "
+            + "   OR EXISTS (SELECT 1 FROM stock_movements m WHERE m.product_id = p.product_id AND m.created_at <= :cutoff "
+            + "              AND m.created_at > (SELECT MAX(s.snapshot_at) FROM stock_snapshots s WHERE s.product_id = p.product_id)) "
+            + "ON CONFLICT (product_id, snapshot_at) DO NOTHING", nativeQuery = true)
+    int snapshotChangedProducts(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,14 @@
+package com.sbms.trading_service.repository;
+
+import java.util.List;
+
+import com.sbms.trading_service.entity.Transaction;
+
+// Custom fragment of TransactionRepository for bulk ingest
+public interface TransactionBulkRepository {
+
+    // Inserts the bills with their lines and offers as JDBC batches and sets the generated ids on them.
+    // Bills whose idempotency key is already stored (e.g. by a concurrent replay) are skipped and keep a
+    // null id; returns the bills actually inserted, in order. Every bill needs a distinct idempotency key
+    List<Transaction> insertAll(List<Transaction> transactions);
+}
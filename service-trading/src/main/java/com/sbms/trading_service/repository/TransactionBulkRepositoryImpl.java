@@ -0,0 +1,119 @@
+package com.sbms.trading_service.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sbms.trading_service.entity.Transaction;
+import com.sbms.trading_service.entity.TransactionOffer;
+import com.sbms.trading_service.entity.TransactionProduct;
+
+import lombok.RequiredArgsConstructor;
+
+// IDENTITY ids stop Hibernate from batching inserts, so bulk ingest writes through JDBC directly
+@RequiredArgsConstructor
+public class TransactionBulkRepositoryImpl implements TransactionBulkRepository {
+
+    private static final String INSERT_TRANSACTION_SQL =
+            "INSERT INTO transactions (business_id, created_at, updated_at, party_id, party_name, transaction_date, "
+            + "type, sub_total, discount, total_amount, paid_amount, payment_mode, reference_number, notes, "
+            + "idempotency_key) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (business_id, idempotency_key) DO NOTHING";
+
+    private static final String INSERT_LINE_SQL =
+            "INSERT INTO transaction_products (business_id, created_at, updated_at, qty, price, amount, is_free, "
+            + "transaction_id, product_id, type) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] LINE_TYPES = { Types.OTHER, Types.TIMESTAMP, Types.TIMESTAMP, Types.NUMERIC,
+            Types.NUMERIC, Types.NUMERIC, Types.BOOLEAN, Types.BIGINT, Types.BIGINT, Types.VARCHAR };
+
+    private static final String INSERT_OFFER_SQL =
+            "INSERT INTO transaction_offers (transaction_id, offer_id, offer_name, discount_amount) VALUES (?, ?, ?, ?)";
+    private static final int[] OFFER_TYPES = { Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.NUMERIC };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Transaction> insertAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+
+        // 1. Bills, reading back the generated ids by idempotency key (skipped bills return no row)
+        Map<String, Long> ids = jdbcTemplate.execute((ConnectionCallback<Map<String, Long>>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_TRANSACTION_SQL,
+                    new String[] { "transaction_id", "idempotency_key" })) {
+                for (Transaction t : transactions) {
+                    ps.setObject(1, t.getBusinessId(), Types.OTHER);
+                    ps.setObject(2, now, Types.TIMESTAMP);
+                    ps.setObject(3, now, Types.TIMESTAMP);
+                    ps.setObject(4, t.getPartyId(), Types.BIGINT);
+                    ps.setObject(5, t.getPartyName(), Types.VARCHAR);
+                    ps.setObject(6, t.getDate(), Types.DATE);
+                    ps.setObject(7, t.getType().name(), Types.VARCHAR);
+                    ps.setObject(8, t.getSubTotal(), Types.NUMERIC);
+                    ps.setObject(9, t.getDiscount(), Types.NUMERIC);
+                    ps.setObject(10, t.getTotalAmount(), Types.NUMERIC);
+                    ps.setObject(11, t.getPaidAmount(), Types.NUMERIC);
+                    ps.setObject(12, t.getPaymentMode() != null ? t.getPaymentMode().name() : null, Types.VARCHAR);
+                    ps.setObject(13, t.getReferenceNumber(), Types.VARCHAR);
+                    ps.setObject(14, t.getNotes(), Types.VARCHAR);
+                    ps.setObject(15, t.getIdempotencyKey(), Types.VARCHAR);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                Map<String, Long> keys = new HashMap<>();
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    while (rs.next()) {
+                        keys.put(rs.getString(2), rs.getLong(1));
+                    }
+                }
+                return keys;
+            }
+        });
+
+        if (ids == null) {
+            throw new IllegalStateException("Bulk insert returned no transaction ids");
+        }
+
+        // 2. Lines and offers of every inserted bill, one batch each
+        List<Transaction> inserted = new ArrayList<>(ids.size());
+        List<Object[]> lineArgs = new ArrayList<>();
+        List<Object[]> offerArgs = new ArrayList<>();
+        for (Transaction t : transactions) {
+            Long id = ids.get(t.getIdempotencyKey());
+            if (id == null) {
+                continue;
+            }
+            inserted.add(t);
+            t.setId(id);
+            t.setCreatedAt(now);
+            t.setUpdatedAt(now);
+
+            for (TransactionProduct tp : t.getProducts()) {
+                lineArgs.add(new Object[] { t.getBusinessId(), now, now, tp.getQty(), tp.getPrice(), tp.getAmount(),
+                        tp.isFree(), id, tp.getProduct().getId(), t.getType().name() });
+            }
+            for (TransactionOffer offer : t.getOffers()) {
+                offerArgs.add(new Object[] { id, offer.getOfferId(), offer.getOfferName(), offer.getDiscountAmount() });
+            }
+        }
+
+        if (!lineArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_LINE_SQL, lineArgs, LINE_TYPES);
+        }
+        if (!offerArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_OFFER_SQL, offerArgs, OFFER_TYPES);
+        }
+        return inserted;
+    }
+}
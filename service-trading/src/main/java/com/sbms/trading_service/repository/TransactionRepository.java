@@ -1,20 +1,25 @@
 package com.sbms.trading_service.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.time.LocalDate;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.sbms.trading_service.dto.ProductHistoryRow;
+import com.sbms.trading_service.dto.TransactionLineRow;
+import com.sbms.trading_service.dto.TransactionOfferRow;
 import com.sbms.trading_service.entity.Transaction;
 import com.sbms.trading_service.enums.TransactionType;
 
 import org.springframework.data.repository.query.Param;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionBulkRepository, SalesLineReader {
 
     @Query("SELECT t.partyId, SUM(t.totalAmount) FROM Transaction t WHERE t.businessId = :businessId AND t.partyId IS NOT NULL AND t.type = TransactionType.SALE AND t.date >= :since GROUP BY t.partyId ORDER BY SUM(t.totalAmount) DESC")
     List<Object[]> findTopSpenders(@Param("businessId") UUID businessId, @Param("since") LocalDate since);
@@ -22,24 +27,67 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     @Query("SELECT t.partyId, COUNT(t) FROM Transaction t WHERE t.businessId = :businessId AND t.partyId IS NOT NULL AND t.date >= :since GROUP BY t.partyId ORDER BY COUNT(t) DESC")
     List<Object[]> findFrequentVisitors(@Param("businessId") UUID businessId, @Param("since") LocalDate since);
 
-    // standard method for "All" types
-    List<Transaction> findByBusinessIdAndPartyNameContainingIgnoreCaseAndDateBetweenOrderByDateDesc(
-        UUID businessId, String partyName, LocalDate startDate, LocalDate endDate
+    // Party-name search. LOWER(party_name) LIKE matches the trigram index created by DatabaseIndexInitializer;
+    // type = null means all types, pattern = null skips the name filter
+    @Query("SELECT t FROM Transaction t WHERE t.businessId = :businessId "
+            + "AND t.date BETWEEN :startDate AND :endDate "
+            + "AND (:type IS NULL OR t.type = :type) "
+            + "AND (:pattern IS NULL OR LOWER(t.partyName) LIKE :pattern ESCAPE '\\') "
+            + "ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> searchByPartyName(
+        @Param("businessId") UUID businessId,
+        @Param("pattern") String pattern,
+        @Param("type") TransactionType type,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
     );
 
-    // standard method for specific "Type" (today,yesterday,this week,this month)
-    List<Transaction> findByBusinessIdAndPartyNameContainingIgnoreCaseAndTypeAndDateBetweenOrderByDateDesc(
-        UUID businessId, String partyName, TransactionType type, LocalDate startDate, LocalDate endDate
+    // Keyset page ordered by (date, id) descending: rows strictly before the cursor, so every page costs the same.
+    // Same filters as searchByPartyName
+    @Query("SELECT t FROM Transaction t WHERE t.businessId = :businessId "
+            + "AND t.date BETWEEN :startDate AND :endDate "
+            + "AND (:type IS NULL OR t.type = :type) "
+            + "AND (:pattern IS NULL OR LOWER(t.partyName) LIKE :pattern ESCAPE '\\') "
+            + "AND (t.date < :cursorDate OR (t.date = :cursorDate AND t.id < :cursorId)) "
+            + "ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findPageBefore(
+        @Param("businessId") UUID businessId,
+        @Param("pattern") String pattern,
+        @Param("type") TransactionType type,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("cursorDate") LocalDate cursorDate,
+        @Param("cursorId") Long cursorId,
+        Pageable pageable
     );
 
     // Find by Party ID
     List<Transaction> findByBusinessIdAndPartyIdOrderByDateDesc(UUID businessId, Long partyId);
 
-    // Order by createdAt (date + time) to ensure proper descending chronology
-    @Query("SELECT t FROM Transaction t JOIN t.products tp WHERE tp.product.id = :productId AND t.type = :type AND t.businessId = :businessId ORDER BY t.createdAt DESC")
-    List<Transaction> findTransactionsByProductAndType(
+    // Most recently recorded priced lines of a product, newest first. Walks idx_transaction_products_product_type_line
+    // backwards within the type and stops at the page size, so the cost doesn't grow with the product's history.
+    // 0.01 is the placeholder rate of free/promotional lines
+    @Query("SELECT new com.sbms.trading_service.dto.ProductHistoryRow(t.id, t.partyName, t.date, tp.qty, tp.price, tp.amount) "
+            + "FROM TransactionProduct tp JOIN tp.transaction t "
+            + "WHERE tp.product.id = :productId AND tp.type = :type AND t.businessId = :businessId AND tp.price <> 0.01 "
+            + "ORDER BY tp.id DESC")
+    List<ProductHistoryRow> findRecentProductLines(
         @Param("productId") Long productId,
         @Param("type") TransactionType type,
-        @Param("businessId") UUID businessId
+        @Param("businessId") UUID businessId,
+        Pageable pageable
     );
+
+    // Bills already stored for the given idempotency keys, as [idempotencyKey, transactionId]
+    @Query("SELECT t.idempotencyKey, t.id FROM Transaction t WHERE t.businessId = :businessId AND t.idempotencyKey IN :keys")
+    List<Object[]> findIdsByIdempotencyKeys(@Param("businessId") UUID businessId, @Param("keys") Collection<String> keys);
+
+    // Read model: lines and offers for a whole page of bills, without loading Product/Category/Unit entities
+    @Query("SELECT new com.sbms.trading_service.dto.TransactionLineRow(tp.transaction.id, p.id, p.name, tp.isFree, tp.qty, tp.price, tp.amount) "
+            + "FROM TransactionProduct tp JOIN tp.product p WHERE tp.transaction.id IN :ids ORDER BY tp.id")
+    List<TransactionLineRow> findLineRowsByTransactionIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.sbms.trading_service.dto.TransactionOfferRow(o.transaction.id, o.offerId, o.offerName, o.discountAmount) "
+            + "FROM TransactionOffer o WHERE o.transaction.id IN :ids ORDER BY o.id")
+    List<TransactionOfferRow> findOfferRowsByTransactionIds(@Param("ids") Collection<Long> ids);
 }
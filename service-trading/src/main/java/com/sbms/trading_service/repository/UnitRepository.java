@@ -1,9 +1,12 @@
 package com.sbms.trading_service.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 
 import com.sbms.trading_service.entity.Unit;
@@ -11,4 +14,9 @@ import com.sbms.trading_service.entity.Unit;
 public interface UnitRepository extends JpaRepository<Unit, Long> {
     Optional<Unit> findByNameAndBusinessId(String name, UUID businessId);
     List<Unit> findAllByBusinessId(UUID businessId);
+
+    // Delta sync window, served by idx_units_business_updated
+    @Query("SELECT x FROM Unit x WHERE x.businessId = :businessId AND x.updatedAt > :after AND x.updatedAt <= :upTo")
+    List<Unit> findChanged(@Param("businessId") UUID businessId, @Param("after") LocalDateTime after,
+            @Param("upTo") LocalDateTime upTo);
 }
@@ -1,6 +1,7 @@
 package com.sbms.trading_service.security;
 
 import java.security.Key;
+import java.util.Date;
 import java.util.UUID;
 import java.util.function.Function;
 
@@ -9,12 +10,16 @@ import org.springframework.stereotype.Service;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 
 @Service
 public class JwtService {
 
+    // Background jobs only need a token for the duration of one call
+    private static final long SERVICE_TOKEN_TTL_MS = 5 * 60 * 1000L;
+
     @Value("${jwt.secret}")
     private String secretKey;
 
@@ -28,6 +33,19 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    // Token for calls made outside a user request (outbox relay, async dispatchers)
+    public String generateServiceToken(UUID businessId) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .claim("businessId", businessId.toString())
+                .claim("role", "ROLE_SERVICE")
+                .setSubject("trading-service")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + SERVICE_TOKEN_TTL_MS))
+                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
     private Claims extractAllClaims(String token) {
         return Jwts.parserBuilder()
                 .setSigningKey(getSignInKey())
@@ -40,4 +58,4 @@ public class JwtService {
         byte[] keyBytes = Decoders.BASE64.decode(secretKey);
         return Keys.hmacShaKeyFor(keyBytes);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,132 @@
+package com.sbms.trading_service.service;
+
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.sbms.trading_service.client.SmartOpsClient;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stale-while-revalidate cache of the smart-ops active offers count per business. Reads never
+ * call smart-ops: a fresh value is returned as is, an older one (up to max-stale) is returned
+ * while a single background refresh runs, and beyond that (or before the first refresh lands)
+ * the count is empty, so callers can report it as unavailable instead of showing 0. When
+ * smart-ops is down the client's circuit breaker rejects refreshes immediately and the last
+ * good value keeps being served within the bound.
+ */
+@Component
+@Slf4j
+public class ActiveOffersCountCache {
+
+    private final SmartOpsClient smartOpsClient;
+    private final Map<UUID, CachedCount> counts = new ConcurrentHashMap<>();
+    private final Set<UUID> refreshing = ConcurrentHashMap.newKeySet();
+    private final ExecutorService refreshers = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final long refreshAfterMillis;
+    private final long maxStaleMillis;
+    private final long idleEvictMillis;
+
+    private final Counter staleCounter;
+    private final Counter missCounter;
+    private final Counter refreshFailedCounter;
+
+    public ActiveOffersCountCache(SmartOpsClient smartOpsClient, MeterRegistry meterRegistry,
+            @Value("${smartops.offers-count.refresh-after-seconds:30}") long refreshAfterSeconds,
+            @Value("${smartops.offers-count.max-stale-seconds:600}") long maxStaleSeconds,
+            @Value("${smartops.offers-count.idle-evict-minutes:30}") long idleEvictMinutes) {
+        this.smartOpsClient = smartOpsClient;
+        this.refreshAfterMillis = refreshAfterSeconds * 1000;
+        this.maxStaleMillis = maxStaleSeconds * 1000;
+        this.idleEvictMillis = idleEvictMinutes * 60_000;
+
+        Gauge.builder("smartops.offers_count.cache.size", counts, Map::size).register(meterRegistry);
+        this.staleCounter = meterRegistry.counter("smartops.offers_count.cache.stale");
+        this.missCounter = meterRegistry.counter("smartops.offers_count.cache.miss");
+        this.refreshFailedCounter = meterRegistry.counter("smartops.offers_count.cache.refresh.failed");
+    }
+
+    public OptionalInt get(UUID businessId) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(businessId);
+        if (cached != null) {
+            cached.lastReadAt = now;
+        }
+
+        long age = cached != null ? now - cached.fetchedAt : Long.MAX_VALUE;
+        if (age < refreshAfterMillis) {
+            return OptionalInt.of(cached.count);
+        }
+
+        refreshAsync(businessId);
+        if (age <= maxStaleMillis) {
+            staleCounter.increment();
+            return OptionalInt.of(cached.count);
+        }
+        missCounter.increment();
+        return OptionalInt.empty();
+    }
+
+    // One refresh in flight per business; concurrent readers keep getting the old value
+    private void refreshAsync(UUID businessId) {
+        if (!refreshing.add(businessId)) {
+            return;
+        }
+        try {
+            refreshers.execute(() -> {
+                try {
+                    int count = smartOpsClient.getActiveOffersCount(businessId);
+                    CachedCount previous = counts.get(businessId);
+                    counts.put(businessId, new CachedCount(count, System.currentTimeMillis(),
+                            previous != null ? previous.lastReadAt : System.currentTimeMillis()));
+                } catch (Exception e) {
+                    refreshFailedCounter.increment();
+                    log.debug("Active offers count refresh failed for business {}: {}", businessId, e.getMessage());
+                } finally {
+                    refreshing.remove(businessId);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.remove(businessId);
+            throw e;
+        }
+    }
+
+    // Businesses nobody has looked at for a while are dropped so the map tracks active tenants only
+    @Scheduled(fixedDelayString = "${smartops.offers-count.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictMillis;
+        counts.values().removeIf(c -> c.lastReadAt < cutoff);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshers.shutdownNow();
+    }
+
+    private static final class CachedCount {
+        final int count;
+        final long fetchedAt;
+        volatile long lastReadAt;
+
+        CachedCount(int count, long fetchedAt, long lastReadAt) {
+            this.count = count;
+            this.fetchedAt = fetchedAt;
+            this.lastReadAt = lastReadAt;
+        }
+    }
+}
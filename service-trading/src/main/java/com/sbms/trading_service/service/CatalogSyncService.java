@@ -0,0 +1,9 @@
+package com.sbms.trading_service.service;
+
+import java.util.UUID;
+
+import com.sbms.trading_service.dto.CatalogChangesResponse;
+
+public interface CatalogSyncService {
+    CatalogChangesResponse getChanges(UUID businessId, String since, int limit);
+}
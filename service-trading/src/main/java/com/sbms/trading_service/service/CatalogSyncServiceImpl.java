@@ -0,0 +1,153 @@
+package com.sbms.trading_service.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sbms.trading_service.dto.CatalogChangesResponse;
+import com.sbms.trading_service.dto.CategoryDto;
+import com.sbms.trading_service.dto.ProductResponse;
+import com.sbms.trading_service.dto.UnitDto;
+import com.sbms.trading_service.entity.CatalogTombstone;
+import com.sbms.trading_service.repository.CatalogTombstoneRepository;
+import com.sbms.trading_service.repository.CategoryRepository;
+import com.sbms.trading_service.repository.ProductRepository;
+import com.sbms.trading_service.repository.UnitRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Catalog delta sync. The watermark is a keyset position (updatedAt, productId): each call returns
+ * the products after it in (updatedAt, id) order, plus the categories, units and deletions stamped
+ * in the same window. Without a watermark, or with one older than the tombstone retention, the
+ * whole catalog is returned with reset set.
+ *
+ * Rows are stamped when written, not when their transaction commits, so a call only reads up to
+ * "now" minus a settle window; a row stamped earlier than that but committed later would otherwise
+ * fall behind a watermark that already passed it. A write whose transaction stays open longer than
+ * the settle window can still be missed by clients until their next full sync, so the window must
+ * outlast the slowest catalog write (bill commits touch products too). All stamps come from the JVM
+ * clock, never the database's, so the window is measured against the same clock that stamped the rows.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogSyncServiceImpl implements CatalogSyncService {
+
+    private static final int MAX_PAGE_SIZE = 5000;
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final UnitRepository unitRepository;
+    private final CatalogTombstoneRepository catalogTombstoneRepository;
+    private final ModelMapper modelMapper;
+
+    @Value("${catalog.sync.settle-seconds:30}")
+    private long settleSeconds;
+
+    @Value("${catalog.sync.tombstone-retention-days:30}")
+    private long retentionDays;
+
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogChangesResponse getChanges(UUID businessId, String since, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime upTo = now.minusSeconds(settleSeconds);
+
+        LocalDateTime afterTime = BEGINNING;
+        long afterId = 0;
+        boolean reset = true;
+        if (since != null && !since.isBlank()) {
+            String[] parts = decodeWatermark(since);
+            LocalDateTime watermarkTime = LocalDateTime.parse(parts[0]);
+            // Deletions before the retention window are gone, so an older client has to start over
+            if (watermarkTime.isAfter(now.minusDays(retentionDays))) {
+                afterTime = watermarkTime;
+                afterId = Long.parseLong(parts[1]);
+                reset = false;
+            }
+        }
+        if (upTo.isBefore(afterTime)) {
+            upTo = afterTime;
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<ProductResponse> rows = productRepository.findChangedResponses(businessId, afterTime, afterId, upTo,
+                PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<ProductResponse> products = hasMore ? rows.subList(0, pageSize) : rows;
+
+        List<CategoryDto> categories = categoryRepository.findChanged(businessId, afterTime, upTo).stream()
+                .map(category -> modelMapper.map(category, CategoryDto.class))
+                .collect(Collectors.toList());
+        List<UnitDto> units = unitRepository.findChanged(businessId, afterTime, upTo).stream()
+                .map(unit -> modelMapper.map(unit, UnitDto.class))
+                .collect(Collectors.toList());
+
+        List<Long> deletedProductIds = new ArrayList<>();
+        List<Long> deletedCategoryIds = new ArrayList<>();
+        List<Long> deletedUnitIds = new ArrayList<>();
+        if (!reset) {
+            for (CatalogTombstone tombstone : catalogTombstoneRepository.findChanged(businessId, afterTime, upTo)) {
+                switch (tombstone.getEntityType()) {
+                    case PRODUCT -> deletedProductIds.add(tombstone.getEntityId());
+                    case CATEGORY -> deletedCategoryIds.add(tombstone.getEntityId());
+                    case UNIT -> deletedUnitIds.add(tombstone.getEntityId());
+                }
+            }
+        }
+
+        // A full page resumes after its last product; otherwise everything up to upTo has been handed out
+        String watermark;
+        if (hasMore) {
+            ProductResponse last = products.get(products.size() - 1);
+            watermark = encodeWatermark(last.getUpdatedAt(), last.getId());
+        } else {
+            watermark = encodeWatermark(upTo, Long.MAX_VALUE);
+        }
+
+        return CatalogChangesResponse.builder()
+                .products(products)
+                .categories(categories)
+                .units(units)
+                .deletedProductIds(deletedProductIds)
+                .deletedCategoryIds(deletedCategoryIds)
+                .deletedUnitIds(deletedUnitIds)
+                .watermark(watermark)
+                .hasMore(hasMore)
+                .reset(reset)
+                .build();
+    }
+
+    private String encodeWatermark(LocalDateTime time, Long id) {
+        String raw = time + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeWatermark(String watermark) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(watermark), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid watermark");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.sbms.trading_service.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sbms.trading_service.repository.CatalogTombstoneRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drops catalog tombstones past the sync retention. Clients whose watermark is older than that
+ * get a full catalog (reset) instead of deltas, so they never depend on a purged tombstone.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogTombstonePurgeJob {
+
+    private final CatalogTombstoneRepository catalogTombstoneRepository;
+
+    @Value("${catalog.sync.tombstone-retention-days:30}")
+    private long retentionDays;
+
+    @Scheduled(cron = "${catalog.sync.purge-cron:0 45 2 * * *}")
+    @Transactional
+    public void purge() {
+        int deleted = catalogTombstoneRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+        log.info("Purged {} catalog tombstones", deleted);
+    }
+}
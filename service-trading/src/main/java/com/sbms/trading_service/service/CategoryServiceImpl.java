@@ -1,5 +1,6 @@
 package com.sbms.trading_service.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -9,7 +10,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.sbms.trading_service.dto.CategoryDto;
+import com.sbms.trading_service.entity.CatalogTombstone;
 import com.sbms.trading_service.entity.Category;
+import com.sbms.trading_service.enums.CatalogEntityType;
+import com.sbms.trading_service.repository.CatalogTombstoneRepository;
 import com.sbms.trading_service.repository.CategoryRepository;
 import com.sbms.trading_service.repository.ProductRepository;
 
@@ -21,6 +25,7 @@ import lombok.RequiredArgsConstructor;
 public class CategoryServiceImpl implements CategoryService {
 	private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
+    private final CatalogTombstoneRepository catalogTombstoneRepository;
     private final ModelMapper modelMapper;
 
     @Override
@@ -47,6 +52,9 @@ public class CategoryServiceImpl implements CategoryService {
             throw new RuntimeException("Unauthorized");
         }
 
+        if (!category.getName().equals(name)) {
+            productRepository.touchByCategory(id, businessId, LocalDateTime.now());
+        }
         category.setName(name);
         if (styleId != null) {
             category.setStyleId(styleId);
@@ -70,6 +78,7 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         categoryRepository.delete(category);
+        recordDeletion(category);
     }
 
     @Override
@@ -84,10 +93,17 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         // Update all products in this business from source category to target category
-        productRepository.updateCategoryForBusiness(sourceCat, targetCat, businessId);
+        productRepository.updateCategoryForBusiness(sourceCat, targetCat, businessId, LocalDateTime.now());
 
         // Delete the source category
         categoryRepository.delete(sourceCat);
+        recordDeletion(sourceCat);
+    }
+
+    private void recordDeletion(Category category) {
+        CatalogTombstone tombstone = new CatalogTombstone(CatalogEntityType.CATEGORY, category.getId());
+        tombstone.setBusinessId(category.getBusinessId());
+        catalogTombstoneRepository.save(tombstone);
     }
 
     @Override
@@ -0,0 +1,113 @@
+package com.sbms.trading_service.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sbms.trading_service.dto.DashboardSummaryDto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded LRU cache of dashboard summaries per (business, period) with a TTL.
+ * Every business has a generation number that bill and product writes bump after commit;
+ * a snapshot is only served while its generation is current, so one business's writes
+ * invalidate exactly that business's dashboards.
+ */
+@Component
+public class DashboardCache {
+
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+    private final Map<Key, DashboardSnapshot> entries;
+    private final Map<UUID, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public DashboardCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${dashboard.cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${dashboard.cache.max-entries:10000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, DashboardSnapshot> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = meterRegistry.counter("dashboard.cache.hits");
+        this.misses = meterRegistry.counter("dashboard.cache.misses");
+    }
+
+    public DashboardSnapshot get(UUID businessId, String period, Supplier<DashboardSummaryDto> loader) {
+        Key key = new Key(businessId, period.toLowerCase());
+        long generation = generation(businessId).get();
+        long now = System.currentTimeMillis();
+
+        DashboardSnapshot cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null && cached.generation() == generation && cached.expiresAt() > now) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        DashboardSummaryDto summary = loader.get();
+        DashboardSnapshot fresh = new DashboardSnapshot(summary, etag(summary), generation, now + ttlMillis);
+
+        // A write that committed while this was computed may not be reflected; don't keep it.
+        // Partial summaries aren't kept either, so the next request retries the missing sections.
+        if (generation(businessId).get() == generation && summary.getDegradedSections() == null) {
+            synchronized (entries) {
+                entries.put(key, fresh);
+            }
+        }
+        return fresh;
+    }
+
+    // Bumped after the writing transaction commits, so a reader can't re-cache pre-commit data
+    public void invalidate(UUID businessId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation(businessId).incrementAndGet();
+                }
+            });
+        } else {
+            generation(businessId).incrementAndGet();
+        }
+    }
+
+    private AtomicLong generation(UUID businessId) {
+        return generations.computeIfAbsent(businessId, k -> new AtomicLong());
+    }
+
+    private String etag(DashboardSummaryDto summary) {
+        try {
+            return "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(summary)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize dashboard summary", e);
+        }
+    }
+
+    public record DashboardSnapshot(DashboardSummaryDto summary, String etag, long generation, long expiresAt) {
+    }
+
+    private record Key(UUID businessId, String period) {
+    }
+}
@@ -0,0 +1,271 @@
+package com.sbms.trading_service.service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.sbms.trading_service.dto.LowStockItemDto;
+import com.sbms.trading_service.entity.Product;
+import com.sbms.trading_service.enums.TransactionType;
+import com.sbms.trading_service.repository.ProductRepository;
+import com.sbms.trading_service.repository.SalesRollupStore;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Server-Sent Events feed of small dashboard deltas per business: today's sales/bill count
+ * changes and products crossing their minimum stock. Events are published by the bill and
+ * product write paths after commit.
+ *
+ * Each connection buffers pending events by key (sales deltas are summed, stock crossings keep
+ * the latest per product), so its memory is bounded no matter how fast bills arrive. Sends run
+ * on virtual threads, one in flight per connection; a slow client just gets coalesced events,
+ * and one that falls too far behind gets a single "resync" telling it to reload the summary.
+ *
+ * Connections are held in memory, so a client only sees writes handled by the instance it is
+ * connected to.
+ */
+@Component
+@Slf4j
+public class DashboardEventStream {
+
+    private static final String SALES_KEY = "sales";
+    private static final String RESYNC_KEY = "resync";
+
+    private final ProductRepository productRepository;
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final long timeoutMillis;
+    private final int maxConnectionsPerBusiness;
+    private final int maxPendingEvents;
+    private final long heartbeatMillis;
+
+    public DashboardEventStream(ProductRepository productRepository,
+            @Value("${dashboard.stream.timeout-minutes:30}") long timeoutMinutes,
+            @Value("${dashboard.stream.max-connections-per-business:20}") int maxConnectionsPerBusiness,
+            @Value("${dashboard.stream.max-pending-events:100}") int maxPendingEvents,
+            @Value("${dashboard.stream.heartbeat-seconds:15}") long heartbeatSeconds) {
+        this.productRepository = productRepository;
+        this.timeoutMillis = timeoutMinutes * 60_000;
+        this.maxConnectionsPerBusiness = maxConnectionsPerBusiness;
+        this.maxPendingEvents = maxPendingEvents;
+        this.heartbeatMillis = heartbeatSeconds * 1000;
+    }
+
+    public SseEmitter subscribe(UUID businessId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+
+        // Check and add under the map's lock for this business, so concurrent connects can't overshoot the cap
+        subscribers.compute(businessId, (k, current) -> {
+            Set<Subscriber> set = current != null ? current : new CopyOnWriteArraySet<>();
+            if (set.size() >= maxConnectionsPerBusiness) {
+                throw new RuntimeException("Too many live dashboard connections for this business");
+            }
+            set.add(subscriber);
+            return set;
+        });
+
+        Runnable remove = () -> unsubscribe(businessId, subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    // The last connection of a business takes its entry with it, so the map only holds watched businesses
+    private void unsubscribe(UUID businessId, Subscriber subscriber) {
+        subscribers.computeIfPresent(businessId, (k, current) -> {
+            current.remove(subscriber);
+            return current.isEmpty() ? null : current;
+        });
+    }
+
+    // Bill writes: today's SALE entries become one summed delta
+    public void salesChanged(UUID businessId, List<SalesRollupStore.Entry> entries) {
+        if (!hasSubscribers(businessId)) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        BigDecimal amount = BigDecimal.ZERO;
+        int bills = 0;
+        for (SalesRollupStore.Entry entry : entries) {
+            if (entry.type() == TransactionType.SALE && today.equals(entry.date())) {
+                amount = amount.add(entry.amount() != null ? entry.amount() : BigDecimal.ZERO);
+                bills += entry.bills();
+            }
+        }
+        if (amount.compareTo(BigDecimal.ZERO) != 0 || bills != 0) {
+            publishAfterCommit(businessId, SALES_KEY, new SalesDelta(today, amount, bills));
+        }
+    }
+
+    // Bill writes: reads the new levels of the touched products (inside the writing transaction)
+    // and reports the ones whose delta moved them across their minimum
+    public void stockChanged(UUID businessId, Map<Long, BigDecimal> deltas) {
+        if (!hasSubscribers(businessId) || deltas.isEmpty()) {
+            return;
+        }
+        for (LowStockItemDto level : productRepository.findStockLevels(businessId, deltas.keySet())) {
+            if (level.getCurrent() == null || level.getMin() == null) {
+                continue;
+            }
+            BigDecimal before = level.getCurrent().subtract(deltas.getOrDefault(level.getId(), BigDecimal.ZERO));
+            publishCrossing(businessId, level, before.compareTo(level.getMin()) <= 0);
+        }
+    }
+
+    // Product edits, where the old level is already known
+    public void stockLevelChanged(UUID businessId, Product product, boolean wasLow) {
+        if (!hasSubscribers(businessId) || product.getCurrentStock() == null || product.getMinStock() == null) {
+            return;
+        }
+        publishCrossing(businessId, new LowStockItemDto(product.getId(), product.getName(), product.getCurrentStock(),
+                product.getMinStock(), product.getUnit() != null ? product.getUnit().getSymbol() : null), wasLow);
+    }
+
+    private void publishCrossing(UUID businessId, LowStockItemDto level, boolean wasLow) {
+        boolean isLow = level.getCurrent().compareTo(level.getMin()) <= 0;
+        if (isLow != wasLow) {
+            publishAfterCommit(businessId, "low-stock:" + level.getId(), new LowStockCrossing(level.getId(),
+                    level.getName(), level.getCurrent(), level.getMin(), level.getUnit(), isLow));
+        }
+    }
+
+    private boolean hasSubscribers(UUID businessId) {
+        Set<Subscriber> current = subscribers.get(businessId);
+        return current != null && !current.isEmpty();
+    }
+
+    private void publishAfterCommit(UUID businessId, String key, Object event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(businessId, key, event);
+                }
+            });
+        } else {
+            publish(businessId, key, event);
+        }
+    }
+
+    private void publish(UUID businessId, String key, Object event) {
+        Set<Subscriber> current = subscribers.get(businessId);
+        if (current == null) {
+            return;
+        }
+        for (Subscriber subscriber : current) {
+            subscriber.offer(key, event, maxPendingEvents);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.stream.flush-interval-ms:500}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        subscribers.forEach((businessId, current) -> {
+            for (Subscriber subscriber : current) {
+                boolean idle = now - subscriber.lastSentAt >= heartbeatMillis;
+                if ((subscriber.hasPending() || idle) && subscriber.sending.compareAndSet(false, true)) {
+                    senders.execute(() -> send(subscriber, businessId));
+                }
+            }
+        });
+    }
+
+    private void send(Subscriber subscriber, UUID businessId) {
+        try {
+            List<Map.Entry<String, Object>> batch = subscriber.drain();
+            if (batch.isEmpty()) {
+                subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+            }
+            for (Map.Entry<String, Object> entry : batch) {
+                String name = entry.getKey().startsWith("low-stock:") ? "low-stock" : entry.getKey();
+                subscriber.emitter.send(SseEmitter.event().name(name).data(entry.getValue()));
+            }
+            subscriber.lastSentAt = System.currentTimeMillis();
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            unsubscribe(businessId, subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.sending.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(current -> current.forEach(s -> s.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    public record SalesDelta(LocalDate date, BigDecimal salesDelta, int billsDelta) {
+        SalesDelta plus(SalesDelta other) {
+            return new SalesDelta(date, salesDelta.add(other.salesDelta), billsDelta + other.billsDelta);
+        }
+    }
+
+    public record LowStockCrossing(Long productId, String name, BigDecimal current, BigDecimal min, String unit,
+            boolean low) {
+    }
+
+    public record Resync(String reason) {
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final AtomicBoolean sending = new AtomicBoolean();
+        // Pending events by key; guarded by this
+        private final Map<String, Object> pending = new LinkedHashMap<>();
+        volatile long lastSentAt = System.currentTimeMillis();
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void offer(String key, Object event, int maxPending) {
+            if (pending.containsKey(RESYNC_KEY)) {
+                return; // Client will reload everything anyway
+            }
+            Object previous = pending.get(key);
+            if (previous instanceof SalesDelta sales && event instanceof SalesDelta next && sales.date().equals(next.date())) {
+                pending.put(key, sales.plus(next));
+            } else if (previous != null || pending.size() < maxPending) {
+                pending.put(key, event);
+            } else {
+                pending.clear();
+                pending.put(RESYNC_KEY, new Resync("Too many pending events"));
+            }
+        }
+
+        synchronized boolean hasPending() {
+            return !pending.isEmpty();
+        }
+
+        synchronized List<Map.Entry<String, Object>> drain() {
+            List<Map.Entry<String, Object>> batch = new ArrayList<>(pending.entrySet());
+            pending.clear();
+            return batch;
+        }
+    }
+}
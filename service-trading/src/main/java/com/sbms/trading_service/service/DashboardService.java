@@ -1,8 +1,20 @@
 package com.sbms.trading_service.service;
 
+import com.sbms.trading_service.dto.ChartDataPointDto;
 import com.sbms.trading_service.dto.DashboardSummaryDto;
+import com.sbms.trading_service.dto.SalesComparisonRow;
+import com.sbms.trading_service.enums.ChartGranularity;
+import com.sbms.trading_service.enums.SalesComparison;
+import com.sbms.trading_service.enums.SalesDimension;
+
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 public interface DashboardService {
     DashboardSummaryDto getDashboardSummary(UUID businessId, String period);
+    DashboardCache.DashboardSnapshot getDashboardSnapshot(UUID businessId, String period);
+    List<ChartDataPointDto> getSalesChart(UUID businessId, LocalDate start, LocalDate end, ChartGranularity granularity);
+    List<SalesComparisonRow> compareSales(UUID businessId, LocalDate start, LocalDate end, SalesComparison comparison,
+            SalesDimension groupBy, Long productId, Long partyId, Integer limit);
 }
@@ -1,39 +1,86 @@
 package com.sbms.trading_service.service;
 
 import com.sbms.trading_service.dto.*;
-import com.sbms.trading_service.entity.Product;
+import com.sbms.trading_service.entity.SalesRollupDaily;
 import com.sbms.trading_service.entity.Transaction;
+import com.sbms.trading_service.enums.ChartGranularity;
+import com.sbms.trading_service.enums.SalesComparison;
+import com.sbms.trading_service.enums.SalesDimension;
 import com.sbms.trading_service.enums.TransactionType;
 import com.sbms.trading_service.repository.ProductRepository;
-import com.sbms.trading_service.repository.TransactionRepository;
-import lombok.RequiredArgsConstructor;
+import com.sbms.trading_service.repository.SalesRollupDailyRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAdjusters;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.time.DayOfWeek;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class DashboardServiceImpl implements DashboardService {
 
-    private final TransactionRepository transactionRepository;
+    private static final int LOW_STOCK_LIMIT = 5;
+
     private final ProductRepository productRepository;
-    private final RestTemplate restTemplate;
+    private final ActiveOffersCountCache activeOffersCountCache;
+    private final SalesRollupDailyRepository salesRollupDailyRepository;
+    private final SalesChartEngine salesChartEngine;
+    private final DashboardCache dashboardCache;
+    private final SalesCube salesCube;
+
+    private final TransactionTemplate sectionTransaction;
+
+    // Sections are independent reads, so each gets its own virtual thread; the permits cap how many
+    // hold a pooled connection at once across all summaries
+    private final ExecutorService sectionExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore sectionPermits;
+
+    private final long sectionTimeoutMs;
+
+    public DashboardServiceImpl(ProductRepository productRepository, ActiveOffersCountCache activeOffersCountCache,
+            SalesRollupDailyRepository salesRollupDailyRepository, SalesChartEngine salesChartEngine,
+            DashboardCache dashboardCache, SalesCube salesCube, PlatformTransactionManager transactionManager,
+            @Value("${dashboard.section-timeout-ms:2000}") long sectionTimeoutMs,
+            @Value("${dashboard.max-concurrent-sections:4}") int maxConcurrentSections) {
+        this.productRepository = productRepository;
+        this.activeOffersCountCache = activeOffersCountCache;
+        this.salesRollupDailyRepository = salesRollupDailyRepository;
+        this.salesChartEngine = salesChartEngine;
+        this.dashboardCache = dashboardCache;
+        this.salesCube = salesCube;
+        this.sectionTimeoutMs = sectionTimeoutMs;
+        this.sectionPermits = new Semaphore(maxConcurrentSections);
+        // orTimeout only stops waiting; the transaction timeout becomes the JDBC statement timeout,
+        // so Postgres cancels a query that outlives the section
+        this.sectionTransaction = new TransactionTemplate(transactionManager);
+        this.sectionTransaction.setReadOnly(true);
+        this.sectionTransaction.setTimeout((int) Math.max(1, (sectionTimeoutMs + 999) / 1000));
+    }
 
-    @Value("${service.smartops.url}")
-    private String smartOpsServiceUrl;
+    // Served from the per-business cache until a write for this business or the TTL invalidates it
+    @Override
+    public DashboardCache.DashboardSnapshot getDashboardSnapshot(UUID businessId, String period) {
+        return dashboardCache.get(businessId, period, () -> getDashboardSummary(businessId, period));
+    }
 
     @Override
     public DashboardSummaryDto getDashboardSummary(UUID businessId, String period) {
@@ -41,66 +88,94 @@ public class DashboardServiceImpl implements DashboardService {
 
         // Calculate date range based on period
         DateRange dateRange = calculateDateRange(period);
+        LocalDate today = LocalDate.now();
 
-        // Fetch all transactions for the period
-        List<Transaction> transactions = transactionRepository
-                .findByBusinessIdAndPartyNameContainingIgnoreCaseAndDateBetweenOrderByDateDesc(
-                        businessId, "", dateRange.start, dateRange.end);
-
-        // Generate stats
-        DashboardStatsDto stats = generateStats(businessId, transactions);
-
-        // Generate chart data
-        List<ChartDataPointDto> chartData = generateChartData(transactions, period);
-
-        // Get low stock items
-        List<LowStockItemDto> lowStockItems = getLowStockItems(businessId);
+        // Daily sales rollups covering the period and the 30-day average window: a few dozen rows at most
+        LocalDate from = dateRange.start.isBefore(today.minusDays(30)) ? dateRange.start : today.minusDays(30);
+        LocalDate to = dateRange.end.isAfter(today) ? dateRange.end : today;
+
+        // All sections run at once, so latency is the slowest section (capped by the timeout), not the sum
+        Collection<String> degraded = new ConcurrentLinkedQueue<>();
+        CompletableFuture<Map<LocalDate, SalesRollupDaily>> dailySales = section("sales", degraded, Map.of(),
+                () -> salesRollupDailyRepository
+                        .findByBusinessIdAndTypeAndBucketDateBetween(businessId, TransactionType.SALE, from, to)
+                        .stream()
+                        .collect(Collectors.toMap(SalesRollupDaily::getBucketDate, r -> r)));
+        CompletableFuture<Long> lowStockCount = section("lowStockCount", degraded, 0L,
+                () -> productRepository.countLowStock(businessId));
+        CompletableFuture<List<ChartDataPointDto>> chartData = section("chartData", degraded, List.of(),
+                () -> generateChartData(businessId, period));
+        CompletableFuture<List<LowStockItemDto>> lowStockItems = section("lowStockItems", degraded, List.of(),
+                () -> getLowStockItems(businessId));
+
+        // Sections never fail (they fall back), so joining can't throw
+        DashboardStatsDto stats = generateStats(businessId, dailySales.join(), lowStockCount.join().intValue(), degraded);
 
         return DashboardSummaryDto.builder()
                 .stats(stats)
-                .chartData(chartData)
-                .lowStockItems(lowStockItems)
+                .chartData(chartData.join())
+                .lowStockItems(lowStockItems.join())
+                .degradedSections(degraded.isEmpty() ? null : List.copyOf(degraded))
                 .build();
     }
 
-    private DashboardStatsDto generateStats(UUID businessId, List<Transaction> transactions) {
-        LocalDate today = LocalDate.now();
+    // A section that fails or misses the timeout yields its fallback and is reported as degraded
+    private <T> CompletableFuture<T> section(String name, Collection<String> degraded, T fallback, Supplier<T> loader) {
+        return CompletableFuture.supplyAsync(() -> load(name, loader), sectionExecutor)
+                .orTimeout(sectionTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    log.warn("Dashboard section {} unavailable: {}", name, e.toString());
+                    degraded.add(name);
+                    return fallback;
+                });
+    }
 
-        // Filter today's sales transactions
-        List<Transaction> todaysTransactions = transactions.stream()
-                .filter(t -> t.getDate().equals(today))
-                .filter(t -> t.getType() == TransactionType.SALE)
-                .toList();
+    // Waits for a permit no longer than the section would be waited for
+    private <T> T load(String name, Supplier<T> loader) {
+        try {
+            if (!sectionPermits.tryAcquire(sectionTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Too many dashboard sections in flight for " + name);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        try {
+            return sectionTransaction.execute(status -> loader.get());
+        } finally {
+            sectionPermits.release();
+        }
+    }
 
-        // Calculate today's sales
-        BigDecimal todaysSales = todaysTransactions.stream()
-                .map(Transaction::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    @PreDestroy
+    public void shutdown() {
+        sectionExecutor.shutdownNow();
+    }
 
-        // Total bills count for today
-        int totalBills = todaysTransactions.size();
+    private DashboardStatsDto generateStats(UUID businessId, Map<LocalDate, SalesRollupDaily> dailySales,
+            int lowStockCount, Collection<String> degraded) {
+        LocalDate today = LocalDate.now();
 
-        // Get low stock items count
-        List<Product> products = productRepository.findAllByBusinessId(businessId);
-        int lowStockCount = (int) products.stream()
-                .filter(p -> p.getCurrentStock().compareTo(p.getMinStock()) <= 0)
-                .count();
+        // Today's sales and bill count
+        SalesRollupDaily todays = dailySales.get(today);
+        BigDecimal todaysSales = todays != null ? todays.getTotalAmount() : BigDecimal.ZERO;
+        int totalBills = todays != null ? (int) todays.getBillCount() : 0;
 
-        // Get active offers count from service-smart-ops
-        int activeOffers = getActiveOffersCount(businessId);
+        // Active offers count from service-smart-ops, served from the background-refreshed cache;
+        // with no usable value yet the section is degraded, which also keeps the summary out of the cache
+        OptionalInt offersCount = activeOffersCountCache.get(businessId);
+        if (offersCount.isEmpty()) {
+            degraded.add("activeOffers");
+        }
+        int activeOffers = offersCount.orElse(0);
 
         // Calculate sales trend (compare with yesterday)
-        LocalDate yesterday = today.minusDays(1);
-        BigDecimal yesterdaysSales = transactions.stream()
-                .filter(t -> t.getDate().equals(yesterday))
-                .filter(t -> t.getType() == TransactionType.SALE)
-                .map(Transaction::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal yesterdaysSales = salesOn(dailySales, today.minusDays(1));
 
         String salesTrend = calculateTrend(todaysSales, yesterdaysSales);
 
         // Calculate daily average (last 30 days)
-        BigDecimal dailyAverage = calculateDailyAverage(transactions);
+        BigDecimal dailyAverage = calculateDailyAverage(dailySales);
 
         return DashboardStatsDto.builder()
                 .todaysSales(todaysSales)
@@ -112,25 +187,9 @@ public class DashboardServiceImpl implements DashboardService {
                 .build();
     }
 
-    private int getActiveOffersCount(UUID businessId) {
-        try {
-            // Use the internal count endpoint that doesn't require authentication
-            String url = smartOpsServiceUrl + "/api/smart-ops/offers/count/" + businessId;
-            log.info("Calling smart-ops service at: {}", url);
-
-            // Make HTTP call to service-smart-ops internal endpoint
-            Map<String, Integer> response = restTemplate.getForObject(url, Map.class);
-
-            if (response != null && response.containsKey("count")) {
-                int count = response.get("count");
-                log.info("Active offers count: {}", count);
-                return count;
-            }
-            return 0;
-        } catch (Exception e) {
-            log.error("Error fetching active offers count from smart-ops service: {}", e.getMessage());
-            return 0; // Return 0 if service is down
-        }
+    private BigDecimal salesOn(Map<LocalDate, SalesRollupDaily> dailySales, LocalDate day) {
+        SalesRollupDaily row = dailySales.get(day);
+        return row != null ? row.getTotalAmount() : BigDecimal.ZERO;
     }
 
     private String calculateTrend(BigDecimal today, BigDecimal yesterday) {
@@ -147,158 +206,47 @@ public class DashboardServiceImpl implements DashboardService {
         return (percentChange.compareTo(BigDecimal.ZERO) >= 0 ? "+" : "") + percentChange + "%";
     }
 
-    private BigDecimal calculateDailyAverage(List<Transaction> transactions) {
+    private BigDecimal calculateDailyAverage(Map<LocalDate, SalesRollupDaily> dailySales) {
         LocalDate thirtyDaysAgo = LocalDate.now().minusDays(30);
 
-        BigDecimal totalSales = transactions.stream()
-                .filter(t -> t.getDate().isAfter(thirtyDaysAgo.minusDays(1)))
-                .filter(t -> t.getType() == TransactionType.SALE)
-                .map(Transaction::getTotalAmount)
+        BigDecimal totalSales = dailySales.values().stream()
+                .filter(r -> !r.getBucketDate().isBefore(thirtyDaysAgo))
+                .map(SalesRollupDaily::getTotalAmount)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         return totalSales.divide(new BigDecimal(30), 2, RoundingMode.HALF_UP);
     }
 
-    private List<ChartDataPointDto> generateChartData(List<Transaction> transactions, String period) {
-        List<Transaction> salesTransactions = transactions.stream()
-                .filter(t -> t.getType() == TransactionType.SALE)
-                .toList();
-
+    // Full calendar span of the period, so the chart shows the whole week/month with future buckets at zero
+    private List<ChartDataPointDto> generateChartData(UUID businessId, String period) {
+        LocalDate today = LocalDate.now();
         return switch (period.toLowerCase()) {
-            case "today" -> generateHourlyData(salesTransactions);
-            case "yesterday" -> generateHourlyDataForYesterday(salesTransactions);
-            case "this_week" -> generateDailyData(salesTransactions,
-                    LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
-            case "last_week" -> generateDailyData(salesTransactions,
-                    LocalDate.now().minusWeeks(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
-            case "this_month" -> generateWeeklyData(salesTransactions, LocalDate.now().withDayOfMonth(1));
-            default -> generateHourlyData(salesTransactions);
+            case "yesterday" -> salesChartEngine.salesChart(businessId, today.minusDays(1), today.minusDays(1), null);
+            case "this_week" -> {
+                LocalDate weekStart = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                yield salesChartEngine.salesChart(businessId, weekStart, weekStart.plusDays(6), null);
+            }
+            case "last_week" -> {
+                LocalDate weekStart = today.minusWeeks(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                yield salesChartEngine.salesChart(businessId, weekStart, weekStart.plusDays(6), null);
+            }
+            case "this_month" -> salesChartEngine.salesChart(businessId, today.withDayOfMonth(1),
+                    today.with(TemporalAdjusters.lastDayOfMonth()), null);
+            default -> salesChartEngine.salesChart(businessId, today, today, null);
         };
     }
 
-    private List<ChartDataPointDto> generateHourlyData(List<Transaction> transactions) {
-        LocalDate today = LocalDate.now();
-        Map<Integer, BigDecimal> hourlySales = new HashMap<>();
-
-        // Initialize all hours
-        for (int hour = 0; hour < 24; hour++) {
-            hourlySales.put(hour, BigDecimal.ZERO);
-        }
-
-        // Aggregate sales by hour
-        transactions.stream()
-                .filter(t -> t.getDate().equals(today))
-                .forEach(t -> {
-                    int hour = t.getCreatedAt().getHour();
-                    hourlySales.merge(hour, t.getTotalAmount(), BigDecimal::add);
-                });
-
-        // Convert to chart data (show only business hours or all 24 hours)
-        List<ChartDataPointDto> chartData = new ArrayList<>();
-        for (int hour = 0; hour < 24; hour++) {
-            String label = String.format("%d %s",
-                    hour == 0 ? 12 : (hour > 12 ? hour - 12 : hour),
-                    hour < 12 ? "AM" : "PM");
-
-            chartData.add(ChartDataPointDto.builder()
-                    .name(label)
-                    .sales(hourlySales.get(hour))
-                    .build());
-        }
-
-        return chartData;
-    }
-
-    private List<ChartDataPointDto> generateHourlyDataForYesterday(List<Transaction> transactions) {
-        LocalDate yesterday = LocalDate.now().minusDays(1);
-        Map<Integer, BigDecimal> hourlySales = new HashMap<>();
-
-        for (int hour = 0; hour < 24; hour++) {
-            hourlySales.put(hour, BigDecimal.ZERO);
-        }
-
-        transactions.stream()
-                .filter(t -> t.getDate().equals(yesterday))
-                .forEach(t -> {
-                    int hour = t.getCreatedAt().getHour();
-                    hourlySales.merge(hour, t.getTotalAmount(), BigDecimal::add);
-                });
-
-        List<ChartDataPointDto> chartData = new ArrayList<>();
-        for (int hour = 0; hour < 24; hour++) {
-            String label = String.format("%d %s",
-                    hour == 0 ? 12 : (hour > 12 ? hour - 12 : hour),
-                    hour < 12 ? "AM" : "PM");
-
-            chartData.add(ChartDataPointDto.builder()
-                    .name(label)
-                    .sales(hourlySales.get(hour))
-                    .build());
-        }
-
-        return chartData;
-    }
-
-    private List<ChartDataPointDto> generateDailyData(List<Transaction> transactions, LocalDate weekStart) {
-        LocalDate weekEnd = weekStart.plusDays(6);
-        Map<LocalDate, BigDecimal> dailySales = new HashMap<>();
-
-        // Initialize all days of the week
-        for (int i = 0; i < 7; i++) {
-            dailySales.put(weekStart.plusDays(i), BigDecimal.ZERO);
-        }
-
-        // Aggregate sales by day
-        transactions.stream()
-                .filter(t -> !t.getDate().isBefore(weekStart) && !t.getDate().isAfter(weekEnd))
-                .forEach(t -> dailySales.merge(t.getDate(), t.getTotalAmount(), BigDecimal::add));
-
-        // Convert to chart data
-        List<ChartDataPointDto> chartData = new ArrayList<>();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEE"); // Mon, Tue, etc.
-
-        for (int i = 0; i < 7; i++) {
-            LocalDate day = weekStart.plusDays(i);
-            chartData.add(ChartDataPointDto.builder()
-                    .name(day.format(formatter))
-                    .sales(dailySales.get(day))
-                    .build());
-        }
-
-        return chartData;
+    @Override
+    public List<ChartDataPointDto> getSalesChart(UUID businessId, LocalDate start, LocalDate end,
+            ChartGranularity granularity) {
+        return salesChartEngine.salesChart(businessId, start, end, granularity);
     }
 
-    private List<ChartDataPointDto> generateWeeklyData(List<Transaction> transactions, LocalDate monthStart) {
-        LocalDate monthEnd = monthStart.with(TemporalAdjusters.lastDayOfMonth());
-        List<ChartDataPointDto> chartData = new ArrayList<>();
-
-        int weekNumber = 1;
-        LocalDate weekStart = monthStart;
-
-        while (!weekStart.isAfter(monthEnd)) {
-            LocalDate weekEnd = weekStart.plusDays(6);
-            if (weekEnd.isAfter(monthEnd)) {
-                weekEnd = monthEnd;
-            }
-
-            LocalDate finalWeekStart = weekStart;
-            LocalDate finalWeekEnd = weekEnd;
-
-            BigDecimal weekSales = transactions.stream()
-                    .filter(t -> !t.getDate().isBefore(finalWeekStart) && !t.getDate().isAfter(finalWeekEnd))
-                    .map(Transaction::getTotalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            chartData.add(ChartDataPointDto.builder()
-                    .name("Week " + weekNumber)
-                    .sales(weekSales)
-                    .build());
-
-            weekStart = weekEnd.plusDays(1);
-            weekNumber++;
-        }
-
-        return chartData;
+    // Answered from the in-memory sales cube; only the first query for a business reads Postgres
+    @Override
+    public List<SalesComparisonRow> compareSales(UUID businessId, LocalDate start, LocalDate end,
+            SalesComparison comparison, SalesDimension groupBy, Long productId, Long partyId, Integer limit) {
+        return salesCube.compare(businessId, start, end, comparison, groupBy, productId, partyId, limit);
     }
 
     private String formatTimeAgo(LocalDateTime dateTime) {
@@ -331,19 +279,8 @@ public class DashboardServiceImpl implements DashboardService {
     }
 
     private List<LowStockItemDto> getLowStockItems(UUID businessId) {
-        List<Product> products = productRepository.findAllByBusinessId(businessId);
-
-        return products.stream()
-                .filter(p -> p.getCurrentStock().compareTo(p.getMinStock()) <= 0)
-                .limit(5) // Top 5 low stock items
-                .map(p -> LowStockItemDto.builder()
-                        .id(p.getId())
-                        .name(p.getName())
-                        .current(p.getCurrentStock())
-                        .min(p.getMinStock())
-                        .unit(p.getUnit().getSymbol())
-                        .build())
-                .collect(Collectors.toList());
+        // Top 5 most critical low stock items
+        return productRepository.findMostCriticalLowStock(businessId, PageRequest.of(0, LOW_STOCK_LIMIT));
     }
 
     private DateRange calculateDateRange(String period) {
@@ -0,0 +1,210 @@
+package com.sbms.trading_service.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sbms.trading_service.dto.DemandForecastResponse;
+import com.sbms.trading_service.entity.Product;
+import com.sbms.trading_service.entity.ProductDemandForecast;
+import com.sbms.trading_service.repository.ProductDemandForecastRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Daily demand forecast per product: exponential smoothing of the level with multiplicative
+ * weekday seasonality (Holt-Winters without trend). Sales only add to the open day's demand;
+ * the smoothing step runs when a later sale or read finds the day has passed, so recording a
+ * sale costs a constant amount of work no matter how long the history is.
+ *
+ * Demand is bucketed by the day it is recorded, so back-dated bills count toward today, and edits
+ * or deletions of bills from closed days are not rewound.
+ */
+@Component
+@RequiredArgsConstructor
+public class DemandForecaster {
+
+    // Longer gaps are closed as a plain level decay instead of day-by-day
+    private static final int MAX_CATCH_UP_DAYS = 56;
+    private static final double MIN_FACTOR = 0.05;
+    private static final int QTY_SCALE = 3;
+
+    private final ProductDemandForecastRepository forecastRepository;
+
+    @Value("${forecast.level-smoothing:0.2}")
+    private double alpha;
+
+    @Value("${forecast.weekday-smoothing:0.1}")
+    private double gamma;
+
+    /**
+     * Adds sold quantities (negative for returns/edits) to today's demand of each product. Call
+     * after the bill's stock update: that holds the products' row locks, so concurrent bills for
+     * the same product update its forecast one after the other.
+     */
+    public void recordDemand(UUID businessId, Map<Long, BigDecimal> qtyByProduct) {
+        if (qtyByProduct.isEmpty()) {
+            return;
+        }
+        Map<Long, ProductDemandForecast> forecasts = new HashMap<>();
+        forecastRepository.findByBusinessIdAndProductIdIn(businessId, qtyByProduct.keySet())
+                .forEach(f -> forecasts.put(f.getProductId(), f));
+
+        LocalDate today = LocalDate.now();
+        List<ProductDemandForecast> changed = new ArrayList<>(qtyByProduct.size());
+        qtyByProduct.forEach((productId, qty) -> {
+            if (qty.signum() == 0) {
+                return;
+            }
+            ProductDemandForecast forecast = forecasts.get(productId);
+            State state = forecast != null ? State.of(forecast) : State.initial(today);
+            if (forecast == null) {
+                forecast = new ProductDemandForecast();
+                forecast.setBusinessId(businessId);
+                forecast.setProductId(productId);
+            }
+            rollTo(state, today);
+            state.openDemand = Math.max(0, state.openDemand + qty.doubleValue());
+            state.writeTo(forecast);
+            changed.add(forecast);
+        });
+        forecastRepository.saveAll(changed);
+    }
+
+    // Projection only; the stored state is rolled forward on a copy and left untouched
+    public DemandForecastResponse forecast(Product product, int horizonDays) {
+        LocalDate today = LocalDate.now();
+        State state = forecastRepository.findByProductIdAndBusinessId(product.getId(), product.getBusinessId())
+                .map(State::of)
+                .orElseGet(() -> State.initial(today));
+        rollTo(state, today);
+
+        List<DemandForecastResponse.DayForecast> days = new ArrayList<>(horizonDays);
+        double total = 0;
+        for (int i = 0; i < horizonDays; i++) {
+            LocalDate day = today.plusDays(i);
+            double expected = state.observedDays == 0 ? 0 : state.level * state.factors[weekday(day)];
+            if (i == 0) {
+                expected = Math.max(0, expected - state.openDemand); // What is still to come today
+            }
+            total += expected;
+            days.add(new DemandForecastResponse.DayForecast(day, qty(expected)));
+        }
+
+        BigDecimal horizonDemand = qty(total);
+        BigDecimal currentStock = product.getCurrentStock() != null ? product.getCurrentStock() : BigDecimal.ZERO;
+        BigDecimal minStock = product.getMinStock() != null ? product.getMinStock() : BigDecimal.ZERO;
+        BigDecimal reorder = horizonDemand.add(minStock).subtract(currentStock).max(BigDecimal.ZERO);
+
+        return DemandForecastResponse.builder()
+                .productId(product.getId())
+                .currentStock(currentStock)
+                .minStock(minStock)
+                .observedDays(state.observedDays)
+                .soldToday(qty(state.openDemand))
+                .days(days)
+                .horizonDemand(horizonDemand)
+                .suggestedReorderQty(reorder.setScale(QTY_SCALE, RoundingMode.CEILING))
+                .build();
+    }
+
+    // Closes the open day and any empty days since, leaving today open
+    private void rollTo(State state, LocalDate today) {
+        long gap = ChronoUnit.DAYS.between(state.openDay, today);
+        if (gap <= 0) {
+            return;
+        }
+        closeDay(state, state.openDay, state.openDemand);
+        long emptyDays = gap - 1;
+        int replayed = (int) Math.min(emptyDays, MAX_CATCH_UP_DAYS);
+        for (int i = 1; i <= replayed; i++) {
+            closeDay(state, state.openDay.plusDays(i), 0);
+        }
+        if (emptyDays > replayed) {
+            state.level *= Math.pow(1 - alpha, emptyDays - replayed);
+        }
+        state.openDay = today;
+        state.openDemand = 0;
+    }
+
+    private void closeDay(State state, LocalDate day, double demand) {
+        int weekday = weekday(day);
+        if (state.observedDays == 0) {
+            state.level = demand;
+        } else {
+            double factor = Math.max(state.factors[weekday], MIN_FACTOR);
+            double level = alpha * (demand / factor) + (1 - alpha) * state.level;
+            if (level > 0) {
+                state.factors[weekday] = gamma * (demand / level) + (1 - gamma) * state.factors[weekday];
+                normalise(state.factors);
+            }
+            state.level = level;
+        }
+        state.observedDays++;
+    }
+
+    // Keeps the factors averaging 1 so the level stays the mean daily demand
+    private static void normalise(double[] factors) {
+        double sum = Arrays.stream(factors).sum();
+        if (sum <= 0) {
+            Arrays.fill(factors, 1.0);
+            return;
+        }
+        for (int i = 0; i < factors.length; i++) {
+            factors[i] = factors[i] * factors.length / sum;
+        }
+    }
+
+    private static int weekday(LocalDate day) {
+        return day.getDayOfWeek().getValue() - 1;
+    }
+
+    private static BigDecimal qty(double value) {
+        return BigDecimal.valueOf(value).setScale(QTY_SCALE, RoundingMode.HALF_UP);
+    }
+
+    // Working copy of the entity state, so projections never dirty the managed entity
+    private static final class State {
+        LocalDate openDay;
+        double openDemand;
+        double level;
+        double[] factors;
+        int observedDays;
+
+        static State initial(LocalDate today) {
+            State state = new State();
+            state.openDay = today;
+            state.factors = new double[7];
+            Arrays.fill(state.factors, 1.0);
+            return state;
+        }
+
+        static State of(ProductDemandForecast forecast) {
+            State state = new State();
+            state.openDay = forecast.getOpenDay();
+            state.openDemand = forecast.getOpenDemand();
+            state.level = forecast.getLevel();
+            state.factors = forecast.getWeekdayFactors().clone();
+            state.observedDays = forecast.getObservedDays();
+            return state;
+        }
+
+        void writeTo(ProductDemandForecast forecast) {
+            forecast.setOpenDay(openDay);
+            forecast.setOpenDemand(openDemand);
+            forecast.setLevel(level);
+            forecast.setWeekdayFactors(factors);
+            forecast.setObservedDays(observedDays);
+        }
+    }
+}
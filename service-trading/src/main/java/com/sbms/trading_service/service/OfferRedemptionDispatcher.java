@@ -0,0 +1,232 @@
+package com.sbms.trading_service.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sbms.trading_service.client.SmartOpsClient;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends offer redemption / rollback notifications to service-smart-ops off the request thread.
+ * Events are queued after the bill commits, drained on a fixed delay, coalesced per
+ * (offer, transaction) and posted as one batch per business.
+ * A failed batch is retried as is; smart-ops keys redemptions on (business, offer, transaction),
+ * so records from an attempt that did land are not counted again.
+ */
+@Component
+@Slf4j
+public class OfferRedemptionDispatcher {
+
+    private final SmartOpsClient smartOpsClient;
+    private final BlockingQueue<RedemptionEvent> queue;
+    // Failed events are older than anything still queued, so they go first on the next flush
+    private final Deque<RedemptionEvent> retryBuffer = new ConcurrentLinkedDeque<>();
+
+    private final Counter sentCounter;
+    private final Counter cancelledCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    @Value("${smartops.dispatcher.max-batch:500}")
+    private int maxBatch;
+
+    @Value("${smartops.dispatcher.max-attempts:5}")
+    private int maxAttempts;
+
+    public OfferRedemptionDispatcher(SmartOpsClient smartOpsClient, MeterRegistry meterRegistry,
+            @Value("${smartops.dispatcher.queue-capacity:10000}") int queueCapacity) {
+        this.smartOpsClient = smartOpsClient;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("smartops.redemptions.queue.depth", this, d -> d.queue.size() + d.retryBuffer.size())
+                .description("Redemption events waiting to be sent to smart-ops")
+                .register(meterRegistry);
+        Gauge.builder("smartops.redemptions.queue.lag", this, OfferRedemptionDispatcher::oldestPendingAgeMillis)
+                .description("Age of the oldest unsent redemption event")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.sentCounter = meterRegistry.counter("smartops.redemptions.sent");
+        this.cancelledCounter = meterRegistry.counter("smartops.redemptions.cancelled");
+        this.droppedCounter = meterRegistry.counter("smartops.redemptions.dropped");
+        this.failedCounter = meterRegistry.counter("smartops.redemptions.failed");
+    }
+
+    public void recordUsage(UUID businessId, String offerId, Long transactionId, Long partyId, String partyName,
+            BigDecimal discountAmount) {
+        enqueue(new RedemptionEvent(EventType.RECORD, businessId, offerId, transactionId.toString(),
+                partyId != null ? partyId.toString() : "walk-in",
+                partyName != null ? partyName : "Walk-in",
+                discountAmount, System.currentTimeMillis(), 0));
+    }
+
+    public void rollback(UUID businessId, String offerId, Long transactionId) {
+        enqueue(new RedemptionEvent(EventType.ROLLBACK, businessId, offerId, transactionId.toString(),
+                null, null, null, System.currentTimeMillis(), 0));
+    }
+
+    // Only publish once the bill is committed; a rolled back bill never reaches smart-ops
+    private void enqueue(RedemptionEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(event);
+                }
+            });
+        } else {
+            offer(event);
+        }
+    }
+
+    private void offer(RedemptionEvent event) {
+        if (!queue.offer(event)) {
+            // Marketing stats are non-critical; never block a sale on a full queue
+            droppedCounter.increment();
+            log.warn("Redemption queue full, dropping {} for offer {} on transaction {}",
+                    event.type(), event.offerId(), event.transactionId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${smartops.dispatcher.flush-interval-ms:500}")
+    public void flush() {
+        List<RedemptionEvent> drained = new ArrayList<>();
+        RedemptionEvent retry;
+        while ((retry = retryBuffer.pollFirst()) != null) {
+            drained.add(retry);
+        }
+        queue.drainTo(drained, maxBatch);
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, List<RedemptionEvent>> byBusiness = new LinkedHashMap<>();
+        for (RedemptionEvent event : drained) {
+            byBusiness.computeIfAbsent(event.businessId(), k -> new ArrayList<>()).add(event);
+        }
+
+        for (Map.Entry<UUID, List<RedemptionEvent>> entry : byBusiness.entrySet()) {
+            List<RedemptionEvent> events = entry.getValue();
+            Batch batch = coalesce(events);
+            cancelledCounter.increment(events.size() - batch.size());
+            if (batch.size() == 0) {
+                continue;
+            }
+
+            try {
+                postBatch(entry.getKey(), batch);
+                sentCounter.increment(batch.size());
+            } catch (Exception e) {
+                log.warn("Failed to send {} redemption events for business {}: {}",
+                        batch.size(), entry.getKey(), e.getMessage());
+                requeue(batch);
+            }
+        }
+    }
+
+    /**
+     * Reduces the events for each (offer, transaction) to what smart-ops actually needs:
+     * record then rollback cancels out, and repeated edits keep only the first rollback
+     * (of the redemption that existed before) and the last record.
+     */
+    private Batch coalesce(List<RedemptionEvent> events) {
+        Map<String, RedemptionEvent> first = new LinkedHashMap<>();
+        Map<String, RedemptionEvent> last = new HashMap<>();
+        for (RedemptionEvent event : events) {
+            String key = event.offerId() + ":" + event.transactionId();
+            first.putIfAbsent(key, event);
+            last.put(key, event);
+        }
+
+        Batch batch = new Batch(new ArrayList<>(), new ArrayList<>());
+        for (Map.Entry<String, RedemptionEvent> entry : first.entrySet()) {
+            RedemptionEvent head = entry.getValue();
+            RedemptionEvent tail = last.get(entry.getKey());
+            if (head.type() == EventType.ROLLBACK) {
+                batch.rollbacks().add(head);
+            }
+            if (tail.type() == EventType.RECORD) {
+                batch.records().add(tail);
+            }
+        }
+        return batch;
+    }
+
+    private void postBatch(UUID businessId, Batch batch) {
+        List<Map<String, Object>> records = batch.records().stream()
+                .map(e -> Map.<String, Object>of(
+                        "offerId", e.offerId(),
+                        "transactionId", e.transactionId(),
+                        "customerId", e.customerId(),
+                        "partyName", e.partyName(),
+                        "discountAmount", e.discountAmount() != null ? e.discountAmount() : BigDecimal.ZERO))
+                .toList();
+        List<Map<String, Object>> rollbacks = batch.rollbacks().stream()
+                .map(e -> Map.<String, Object>of(
+                        "offerId", e.offerId(),
+                        "transactionId", e.transactionId()))
+                .toList();
+
+        smartOpsClient.sendRedemptionBatch(businessId, records, rollbacks);
+    }
+
+    // Rollbacks go back ahead of records so the retried batch keeps its meaning
+    private void requeue(Batch batch) {
+        List<RedemptionEvent> retries = new ArrayList<>(batch.rollbacks());
+        retries.addAll(batch.records());
+        for (RedemptionEvent event : retries) {
+            if (event.attempts() + 1 >= maxAttempts) {
+                failedCounter.increment();
+                log.error("Giving up on {} for offer {} on transaction {} after {} attempts",
+                        event.type(), event.offerId(), event.transactionId(), event.attempts() + 1);
+                continue;
+            }
+            retryBuffer.addLast(event.retried());
+        }
+    }
+
+    private double oldestPendingAgeMillis() {
+        RedemptionEvent oldest = retryBuffer.peekFirst();
+        if (oldest == null) {
+            oldest = queue.peek();
+        }
+        return oldest == null ? 0 : System.currentTimeMillis() - oldest.enqueuedAt();
+    }
+
+    private enum EventType {
+        RECORD, ROLLBACK
+    }
+
+    private record RedemptionEvent(EventType type, UUID businessId, String offerId, String transactionId,
+            String customerId, String partyName, BigDecimal discountAmount, long enqueuedAt, int attempts) {
+
+        RedemptionEvent retried() {
+            return new RedemptionEvent(type, businessId, offerId, transactionId, customerId, partyName,
+                    discountAmount, enqueuedAt, attempts + 1);
+        }
+    }
+
+    private record Batch(List<RedemptionEvent> records, List<RedemptionEvent> rollbacks) {
+        int size() {
+            return records.size() + rollbacks.size();
+        }
+    }
+}
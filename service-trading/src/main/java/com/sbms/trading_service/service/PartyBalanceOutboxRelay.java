@@ -0,0 +1,179 @@
+package com.sbms.trading_service.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sbms.trading_service.client.PartiesClient;
+import com.sbms.trading_service.entity.PartyBalanceOutbox;
+import com.sbms.trading_service.enums.OutboxStatus;
+import com.sbms.trading_service.repository.PartyBalanceOutboxRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers queued party balance deltas to service-parties in three steps, none of which holds a
+ * row lock across an HTTP call:
+ *
+ * 1. Claim: lock due rows, net them per party into batches, give each new batch an idempotency
+ *    key and push the rows' next attempt out by a lease so no other run picks them up.
+ * 2. Call: send each batch's net amount with its key.
+ * 3. Mark: SENT on success, backoff on failure.
+ *
+ * A batch keeps its key and its rows across retries (and across a crash, once the lease runs
+ * out), and service-parties ignores a key it has already applied, so a call that timed out after
+ * landing is not applied again.
+ */
+@Component
+@Slf4j
+public class PartyBalanceOutboxRelay {
+
+    private static final long MAX_BACKOFF_SECONDS = 300;
+
+    private final PartyBalanceOutboxRepository outboxRepository;
+    private final PartiesClient partiesClient;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-attempts:12}")
+    private int maxAttempts;
+
+    // Must outlast a run's remote calls; a claim older than this is taken over by the next run
+    @Value("${outbox.relay.claim-lease-seconds:60}")
+    private long claimLeaseSeconds;
+
+    public PartyBalanceOutboxRelay(PartyBalanceOutboxRepository outboxRepository, PartiesClient partiesClient,
+            PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.partiesClient = partiesClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:2000}")
+    public void relay() {
+        List<Batch> batches = transactionTemplate.execute(status -> claim());
+        if (batches == null || batches.isEmpty()) {
+            return;
+        }
+
+        for (Batch batch : batches) {
+            Exception failure = null;
+            try {
+                // Deltas that cancel out (e.g. bill created then deleted) need no remote call
+                if (batch.net().compareTo(BigDecimal.ZERO) != 0) {
+                    partiesClient.adjustBalance(batch.businessId(), batch.partyId(), batch.net(), batch.key());
+                }
+            } catch (Exception e) {
+                log.warn("Balance update for party {} failed ({} rows): {}", batch.partyId(), batch.rows().size(),
+                        e.getMessage());
+                failure = e;
+            }
+
+            Exception error = failure;
+            transactionTemplate.executeWithoutResult(status -> mark(batch, error));
+        }
+    }
+
+    private List<Batch> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<PartyBalanceOutbox> due = outboxRepository.lockNextBatch(now, batchSize);
+        if (due.isEmpty()) {
+            return List.of();
+        }
+
+        // Rows already in a batch are resent with all of that batch's rows, never re-netted
+        Map<String, List<PartyBalanceOutbox>> byKey = new LinkedHashMap<>();
+        Set<String> retriedKeys = due.stream()
+                .map(PartyBalanceOutbox::getBatchKey)
+                .filter(key -> key != null)
+                .collect(Collectors.toSet());
+        if (!retriedKeys.isEmpty()) {
+            Map<String, List<PartyBalanceOutbox>> retried = outboxRepository.lockBatches(retriedKeys).stream()
+                    .collect(Collectors.groupingBy(PartyBalanceOutbox::getBatchKey, LinkedHashMap::new,
+                            Collectors.toList()));
+            // A batch with a row that isn't due is claimed by another run; leave it to that run
+            retried.forEach((key, rows) -> {
+                if (rows.stream().noneMatch(row -> row.getNextAttemptAt().isAfter(now))) {
+                    byKey.put(key, rows);
+                }
+            });
+        }
+
+        // New rows: net per (business, party) under a fresh key, keeping insertion order
+        Map<PartyKey, String> newKeys = new LinkedHashMap<>();
+        for (PartyBalanceOutbox row : due) {
+            if (row.getBatchKey() == null) {
+                String key = newKeys.computeIfAbsent(new PartyKey(row.getBusinessId(), row.getPartyId()),
+                        k -> UUID.randomUUID().toString());
+                row.setBatchKey(key);
+                byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+            }
+        }
+
+        LocalDateTime leaseEnd = now.plusSeconds(claimLeaseSeconds);
+        List<Batch> batches = new ArrayList<>(byKey.size());
+        List<PartyBalanceOutbox> claimed = new ArrayList<>();
+        byKey.forEach((key, rows) -> {
+            rows.forEach(row -> row.setNextAttemptAt(leaseEnd));
+            claimed.addAll(rows);
+            PartyBalanceOutbox first = rows.get(0);
+            BigDecimal net = rows.stream()
+                    .map(PartyBalanceOutbox::getAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            batches.add(new Batch(key, first.getBusinessId(), first.getPartyId(), net, rows));
+        });
+        outboxRepository.saveAll(claimed);
+        return batches;
+    }
+
+    private void mark(Batch batch, Exception error) {
+        LocalDateTime now = LocalDateTime.now();
+        batch.rows().forEach(row -> {
+            if (error == null) {
+                row.setStatus(OutboxStatus.SENT);
+                row.setProcessedAt(now);
+                row.setLastError(null);
+            } else {
+                scheduleRetry(row, error, now);
+            }
+        });
+        outboxRepository.saveAll(batch.rows());
+    }
+
+    private void scheduleRetry(PartyBalanceOutbox row, Exception e, LocalDateTime now) {
+        int attempts = row.getAttempts() + 1;
+        row.setAttempts(attempts);
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        row.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+
+        if (attempts >= maxAttempts) {
+            row.setStatus(OutboxStatus.FAILED);
+            log.error("Giving up on balance update {} for party {} after {} attempts",
+                    row.getId(), row.getPartyId(), attempts);
+            return;
+        }
+        // Exponential backoff: 2s, 4s, 8s ... capped at 5 minutes
+        long delay = Math.min(1L << Math.min(attempts, 20), MAX_BACKOFF_SECONDS);
+        row.setNextAttemptAt(now.plusSeconds(delay));
+    }
+
+    private record PartyKey(UUID businessId, Long partyId) {
+    }
+
+    private record Batch(String key, UUID businessId, Long partyId, BigDecimal net, List<PartyBalanceOutbox> rows) {
+    }
+}
@@ -0,0 +1,375 @@
+package com.sbms.trading_service.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sbms.trading_service.customexceptions.ResourceNotFoundException;
+import com.sbms.trading_service.dto.ProductImportDto;
+import com.sbms.trading_service.entity.Category;
+import com.sbms.trading_service.entity.Product;
+import com.sbms.trading_service.entity.ProductImportJob;
+import com.sbms.trading_service.entity.StockMovement;
+import com.sbms.trading_service.entity.Unit;
+import com.sbms.trading_service.enums.ImportJobStatus;
+import com.sbms.trading_service.enums.StockMovementType;
+import com.sbms.trading_service.repository.CategoryRepository;
+import com.sbms.trading_service.repository.ProductImportJobRepository;
+import com.sbms.trading_service.repository.ProductRepository;
+import com.sbms.trading_service.repository.UnitRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Asynchronous product catalog import. The upload is spooled to a temp file so the request can
+ * return straight away, then read back one row at a time. Categories, units and existing SKUs
+ * are loaded into maps once per job; rows are upserted by SKU in JDBC batches, one DB
+ * transaction per batch, and job progress is saved after each batch.
+ *
+ * New products get their quantity as opening stock (with an OPENING ledger entry). Rows whose
+ * SKU already exists update the catalog fields only; stock of existing products keeps moving
+ * through bills and adjustments. A batch that fails in the database is retried row by row so
+ * the bad rows can be reported individually.
+ */
+@Component
+@Slf4j
+public class ProductImportEngine {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 500;
+    private static final List<ImportJobStatus> ACTIVE = List.of(ImportJobStatus.QUEUED, ImportJobStatus.RUNNING);
+
+    // Held from the active-job check until the new job row commits, so two uploads for one business
+    // (on any instance) can't both pass the check. The first key keeps it apart from other advisory locks
+    private static final int IMPORT_LOCK_CLASS = 0x494d5054;
+    private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(?, hashtext(?))";
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final UnitRepository unitRepository;
+    private final ProductImportJobRepository jobRepository;
+    private final DashboardCache dashboardCache;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductScanCache productScanCache;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+
+    @Value("${product.import.stale-job-minutes:10}")
+    private long staleJobMinutes;
+
+    public ProductImportEngine(ProductRepository productRepository, CategoryRepository categoryRepository,
+            UnitRepository unitRepository, ProductImportJobRepository jobRepository, DashboardCache dashboardCache,
+            ProductSuggestIndex productSuggestIndex, ProductScanCache productScanCache, ObjectMapper objectMapper,
+            JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Value("${product.import.max-concurrent-jobs:2}") int maxConcurrentJobs) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.unitRepository = unitRepository;
+        this.jobRepository = jobRepository;
+        this.dashboardCache = dashboardCache;
+        this.productSuggestIndex = productSuggestIndex;
+        this.productScanCache = productScanCache;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = Executors.newFixedThreadPool(maxConcurrentJobs,
+                Thread.ofVirtual().name("product-import-", 0).factory());
+    }
+
+    // One import per business at a time; the SKU map of a job must not race another job's inserts
+    public ProductImportJob start(UUID businessId, String format, InputStream upload) throws IOException {
+        String normalisedFormat = format.toLowerCase();
+        if (!normalisedFormat.equals("csv") && !normalisedFormat.equals("json")) {
+            throw new RuntimeException("Unsupported import format: " + format);
+        }
+        // Cheap early rejection before spooling; the check that counts is repeated under the lock
+        requireNoActiveImport(businessId);
+
+        Path file = Files.createTempFile("product-import-", "." + normalisedFormat);
+        ProductImportJob saved;
+        try {
+            Files.copy(upload, file, StandardCopyOption.REPLACE_EXISTING);
+            saved = transactionTemplate.execute(status -> {
+                jdbcTemplate.query(LOCK_SQL, (ResultSetExtractor<Void>) rs -> null, IMPORT_LOCK_CLASS,
+                        businessId.toString());
+                requireNoActiveImport(businessId);
+
+                ProductImportJob job = new ProductImportJob();
+                job.setBusinessId(businessId);
+                job.setFormat(normalisedFormat);
+                job.setStatus(ImportJobStatus.QUEUED);
+                return jobRepository.save(job);
+            });
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        workers.execute(() -> run(saved, file));
+        return saved;
+    }
+
+    private void requireNoActiveImport(UUID businessId) {
+        if (jobRepository.existsByBusinessIdAndStatusInAndUpdatedAtAfter(businessId, ACTIVE,
+                LocalDateTime.now().minusMinutes(staleJobMinutes))) {
+            throw new RuntimeException("A product import is already running for this business");
+        }
+    }
+
+    public ProductImportJob getJob(Long jobId, UUID businessId) {
+        return jobRepository.findByIdAndBusinessId(jobId, businessId)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found"));
+    }
+
+    private void run(ProductImportJob job, Path file) {
+        UUID businessId = job.getBusinessId();
+        List<Map<String, Object>> errors = new ArrayList<>();
+        job.setStatus(ImportJobStatus.RUNNING);
+        jobRepository.save(job);
+
+        try (InputStream in = Files.newInputStream(file);
+                ProductImportReader reader = ProductImportReader.open(job.getFormat(), in, objectMapper)) {
+            Lookups lookups = loadLookups(businessId);
+
+            List<ProductImportReader.Row> batch = new ArrayList<>(BATCH_SIZE);
+            ProductImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                batch.add(row);
+                if (batch.size() == BATCH_SIZE) {
+                    importBatch(job, lookups, batch, errors);
+                    batch.clear();
+                }
+            }
+            importBatch(job, lookups, batch, errors);
+
+            job.setStatus(ImportJobStatus.COMPLETED);
+        } catch (Exception e) {
+            log.error("Product import {} for business {} failed: {}", job.getId(), businessId, e.getMessage());
+            job.setStatus(ImportJobStatus.FAILED);
+            job.setMessage(e.getMessage());
+        } finally {
+            job.setFinishedAt(LocalDateTime.now());
+            saveProgress(job, errors);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete import file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private void importBatch(ProductImportJob job, Lookups lookups, List<ProductImportReader.Row> rows,
+            List<Map<String, Object>> errors) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        UUID businessId = job.getBusinessId();
+
+        // Valid rows keyed by SKU, so a SKU repeated in one batch is written once (last row wins)
+        Map<String, ProductImportReader.Row> bySku = new LinkedHashMap<>();
+        List<ProductImportReader.Row> withoutSku = new ArrayList<>();
+        for (ProductImportReader.Row row : rows) {
+            String error = row.error() != null ? row.error() : validate(row.product());
+            if (error != null) {
+                recordError(job, errors, row.number(), error);
+            } else if (row.product().getSku() != null && !row.product().getSku().isBlank()) {
+                bySku.put(row.product().getSku().trim(), row);
+            } else {
+                withoutSku.add(row);
+            }
+        }
+
+        List<ProductImportReader.Row> valid = new ArrayList<>(bySku.values());
+        valid.addAll(withoutSku);
+        // Missing categories and units are created (and committed) first, so a failed batch can't strand their ids
+        resolveNames(businessId, lookups, valid);
+
+        try {
+            writeBatch(job, lookups, valid);
+        } catch (RuntimeException e) {
+            log.warn("Import batch for job {} failed ({}), retrying row by row", job.getId(), e.getMessage());
+            for (ProductImportReader.Row row : valid) {
+                try {
+                    writeBatch(job, lookups, List.of(row));
+                } catch (RuntimeException rowError) {
+                    recordError(job, errors, row.number(), rootMessage(rowError));
+                }
+            }
+        }
+
+        job.setProcessedRows(job.getProcessedRows() + rows.size());
+        saveProgress(job, errors);
+    }
+
+    private void writeBatch(ProductImportJob job, Lookups lookups, List<ProductImportReader.Row> rows) {
+        UUID businessId = job.getBusinessId();
+        List<Product> inserts = new ArrayList<>();
+        List<Product> updates = new ArrayList<>();
+        for (ProductImportReader.Row row : rows) {
+            Product product = toProduct(row.product(), businessId, lookups);
+            Long existingId = product.getSku() != null ? lookups.skuIds.get(product.getSku()) : null;
+            if (existingId != null) {
+                product.setId(existingId);
+                updates.add(product);
+            } else {
+                inserts.add(product);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            productRepository.insertAll(inserts);
+            productRepository.updateCatalog(updates);
+
+            List<StockMovement> opening = new ArrayList<>();
+            for (Product product : inserts) {
+                opening.add(new StockMovement(product.getId(), null, StockMovementType.OPENING, product.getCurrentStock()));
+            }
+            productRepository.appendStockMovements(businessId, opening);
+
+            // Applied when this batch commits, so scans and suggestions see the import as it progresses
+            // and a job that later fails leaves no cache holding the pre-import catalog
+            if (!inserts.isEmpty() || !updates.isEmpty()) {
+                dashboardCache.invalidate(businessId);
+                productSuggestIndex.invalidate(businessId);
+                productScanCache.invalidate(businessId);
+            }
+        });
+
+        // Only after commit: a rolled back insert must not turn later rows into updates
+        for (Product product : inserts) {
+            if (product.getSku() != null) {
+                lookups.skuIds.put(product.getSku(), product.getId());
+            }
+        }
+        job.setInsertedRows(job.getInsertedRows() + inserts.size());
+        job.setUpdatedRows(job.getUpdatedRows() + updates.size());
+    }
+
+    private Lookups loadLookups(UUID businessId) {
+        Lookups lookups = new Lookups();
+        categoryRepository.findAllByBusinessId(businessId).forEach(c -> lookups.categories.putIfAbsent(c.getName(), c));
+        unitRepository.findAllByBusinessId(businessId).forEach(u -> lookups.units.putIfAbsent(u.getName(), u));
+        for (Object[] skuId : productRepository.findSkuIds(businessId)) {
+            lookups.skuIds.putIfAbsent(((String) skuId[0]).trim(), (Long) skuId[1]);
+        }
+        return lookups;
+    }
+
+    private void resolveNames(UUID businessId, Lookups lookups, List<ProductImportReader.Row> rows) {
+        for (ProductImportReader.Row row : rows) {
+            String categoryName = row.product().getCategoryName().trim();
+            lookups.categories.computeIfAbsent(categoryName, name -> {
+                Category category = new Category();
+                category.setName(name);
+                category.setBusinessId(businessId);
+                return categoryRepository.save(category);
+            });
+            String unitName = row.product().getUnitName().trim();
+            lookups.units.computeIfAbsent(unitName, name -> {
+                Unit unit = new Unit();
+                unit.setName(name);
+                unit.setSymbol(name);
+                unit.setBusinessId(businessId);
+                return unitRepository.save(unit);
+            });
+        }
+    }
+
+    private Product toProduct(ProductImportDto dto, UUID businessId, Lookups lookups) {
+        Product product = new Product();
+        product.setBusinessId(businessId);
+        product.setName(dto.getName().trim());
+        product.setSku(dto.getSku() != null && !dto.getSku().isBlank() ? dto.getSku().trim() : null);
+        product.setCategory(lookups.categories.get(dto.getCategoryName().trim()));
+        product.setUnit(lookups.units.get(dto.getUnitName().trim()));
+        product.setCurrentStock(dto.getQty());
+        product.setMinStock(dto.getMinStock());
+        product.setBuyPrice(dto.getBuyPrice());
+        product.setSellPrice(dto.getSellPrice());
+        product.setMrp(dto.getMrp());
+        product.setGstRate(dto.getGstRate());
+        product.setHsn(dto.getHsn());
+        return product;
+    }
+
+    // Same required fields as the synchronous bulk import
+    private String validate(ProductImportDto dto) {
+        if (dto.getName() == null || dto.getName().isBlank()) {
+            return "name is required";
+        } else if (dto.getCategoryName() == null || dto.getCategoryName().isBlank()) {
+            return "categoryName is required";
+        } else if (dto.getUnitName() == null || dto.getUnitName().isBlank()) {
+            return "unitName is required";
+        } else if (dto.getBuyPrice() == null) {
+            return "buyPrice is required";
+        } else if (dto.getQty() == null) {
+            return "qty is required";
+        } else if (dto.getMinStock() == null) {
+            return "minStock is required";
+        } else if (dto.getGstRate() == null) {
+            return "gstRate is required";
+        } else if (dto.getQty().compareTo(BigDecimal.ZERO) < 0 || dto.getMinStock().compareTo(BigDecimal.ZERO) < 0) {
+            return "qty and minStock must not be negative";
+        }
+        return null;
+    }
+
+    private void recordError(ProductImportJob job, List<Map<String, Object>> errors, long row, String message) {
+        job.setFailedRows(job.getFailedRows() + 1);
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(Map.of("row", row, "message", message != null ? message : "Unknown error"));
+        }
+    }
+
+    private void saveProgress(ProductImportJob job, List<Map<String, Object>> errors) {
+        try {
+            job.setErrors(errors.isEmpty() ? null : objectMapper.writeValueAsString(errors));
+        } catch (JsonProcessingException e) {
+            job.setErrors(null);
+        }
+        jobRepository.save(job);
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private static final class Lookups {
+        final Map<String, Category> categories = new HashMap<>();
+        final Map<String, Unit> units = new HashMap<>();
+        final Map<String, Long> skuIds = new HashMap<>();
+    }
+}
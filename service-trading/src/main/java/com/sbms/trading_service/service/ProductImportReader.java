@@ -0,0 +1,230 @@
+package com.sbms.trading_service.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sbms.trading_service.dto.ProductImportDto;
+
+/**
+ * Reads product import rows one at a time from a CSV or JSON upload, so memory does not grow
+ * with the file. A row that can't be parsed comes back with an error instead of stopping the read.
+ */
+abstract class ProductImportReader implements Closeable {
+
+    record Row(long number, ProductImportDto product, String error) {
+    }
+
+    // Next row, or null at the end of the input
+    abstract Row next() throws IOException;
+
+    static ProductImportReader open(String format, InputStream in, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case "csv" -> new Csv(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+            case "json" -> new Json(objectMapper.createParser(in), objectMapper);
+            default -> throw new RuntimeException("Unsupported import format: " + format);
+        };
+    }
+
+    /**
+     * CSV with a header row. Column names are matched ignoring case, spaces and punctuation, and
+     * accept the short forms (category, unit, quantity, gst, ...).
+     */
+    private static final class Csv extends ProductImportReader {
+
+        private static final Map<String, String> COLUMN_ALIASES = Map.ofEntries(
+                Map.entry("name", "name"), Map.entry("productname", "name"),
+                Map.entry("sku", "sku"),
+                Map.entry("categoryname", "category"), Map.entry("category", "category"),
+                Map.entry("unitname", "unit"), Map.entry("unit", "unit"),
+                Map.entry("qty", "qty"), Map.entry("quantity", "qty"), Map.entry("openingstock", "qty"),
+                Map.entry("minstock", "minStock"),
+                Map.entry("buyprice", "buyPrice"),
+                Map.entry("sellprice", "sellPrice"),
+                Map.entry("mrp", "mrp"),
+                Map.entry("gstrate", "gstRate"), Map.entry("gst", "gstRate"),
+                Map.entry("hsn", "hsn"));
+
+        private final BufferedReader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private long rowNumber;
+
+        Csv(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new RuntimeException("CSV file is empty");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                String normalised = header.get(i).replace("\uFEFF", "").toLowerCase().replaceAll("[^a-z0-9]", "");
+                String column = COLUMN_ALIASES.get(normalised);
+                if (column != null) {
+                    columns.putIfAbsent(column, i);
+                }
+            }
+            if (!columns.containsKey("name")) {
+                throw new RuntimeException("CSV header has no name column");
+            }
+        }
+
+        @Override
+        Row next() throws IOException {
+            List<String> fields;
+            do {
+                fields = readRecord();
+                if (fields == null) {
+                    return null;
+                }
+            } while (fields.size() == 1 && fields.get(0).isBlank());
+
+            long number = ++rowNumber;
+            String column = null;
+            try {
+                ProductImportDto product = new ProductImportDto();
+                product.setName(text(fields, "name"));
+                product.setSku(text(fields, "sku"));
+                product.setCategoryName(text(fields, "category"));
+                product.setUnitName(text(fields, "unit"));
+                product.setHsn(text(fields, "hsn"));
+                column = "qty";
+                product.setQty(decimal(fields, column));
+                column = "minStock";
+                product.setMinStock(decimal(fields, column));
+                column = "buyPrice";
+                product.setBuyPrice(decimal(fields, column));
+                column = "sellPrice";
+                product.setSellPrice(decimal(fields, column));
+                column = "mrp";
+                product.setMrp(decimal(fields, column));
+                column = "gstRate";
+                String gst = text(fields, column);
+                product.setGstRate(gst != null ? Double.valueOf(gst) : null);
+                return new Row(number, product, null);
+            } catch (NumberFormatException e) {
+                return new Row(number, null, "Invalid number in column " + column);
+            }
+        }
+
+        private String text(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private BigDecimal decimal(List<String> fields, String column) {
+            String value = text(fields, column);
+            return value != null ? new BigDecimal(value) : null;
+        }
+
+        // RFC 4180: quoted fields may hold commas, doubled quotes and line breaks
+        private List<String> readRecord() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (next != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            if (!any) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    // A JSON array of products, or the {"products": [...]} body of the synchronous bulk endpoint
+    private static final class Json extends ProductImportReader {
+
+        private final JsonParser parser;
+        private final ObjectMapper objectMapper;
+        private long rowNumber;
+
+        Json(JsonParser parser, ObjectMapper objectMapper) throws IOException {
+            this.parser = parser;
+            this.objectMapper = objectMapper;
+
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    token = parser.nextToken();
+                    if ("products".equals(field) && token == JsonToken.START_ARRAY) {
+                        return;
+                    }
+                    parser.skipChildren();
+                }
+                throw new RuntimeException("JSON import has no products array");
+            } else if (token != JsonToken.START_ARRAY) {
+                throw new RuntimeException("JSON import must be an array of products");
+            }
+        }
+
+        @Override
+        Row next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            long number = ++rowNumber;
+            JsonNode node = parser.readValueAsTree();
+            try {
+                return new Row(number, objectMapper.treeToValue(node, ProductImportDto.class), null);
+            } catch (JsonProcessingException e) {
+                return new Row(number, null, "Invalid row: " + e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+}
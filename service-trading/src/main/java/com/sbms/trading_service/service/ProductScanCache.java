@@ -0,0 +1,164 @@
+package com.sbms.trading_service.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sbms.trading_service.dto.ProductSuggestionDto;
+import com.sbms.trading_service.entity.Product;
+import com.sbms.trading_service.repository.ProductRepository;
+
+/**
+ * SKU/barcode to product lookups per business, as a bounded LRU map in front of the
+ * (business_id, sku) unique index. Misses for a whole scan batch go to Postgres in one query.
+ *
+ * Product writes evict the product's old and new code after commit. A lookup only caches what it
+ * read if no write for that business committed while the query ran, so a slow read can't put
+ * back a value a write just evicted. Bulk imports drop the business's map.
+ */
+@Component
+public class ProductScanCache {
+
+    private final ProductRepository productRepository;
+    private final Map<UUID, TenantCache> caches = new ConcurrentHashMap<>();
+
+    private final int maxEntriesPerTenant;
+    private final long idleEvictMillis;
+    private final int maxTenants;
+
+    public ProductScanCache(ProductRepository productRepository,
+            @Value("${product.scan.max-entries-per-tenant:5000}") int maxEntriesPerTenant,
+            @Value("${product.scan.idle-evict-minutes:30}") long idleEvictMinutes,
+            @Value("${product.scan.max-tenants:1000}") int maxTenants) {
+        this.productRepository = productRepository;
+        this.maxEntriesPerTenant = maxEntriesPerTenant;
+        this.idleEvictMillis = idleEvictMinutes * 60_000;
+        this.maxTenants = maxTenants;
+    }
+
+    /** Products for the given codes; codes with no product are absent from the result. */
+    public Map<String, ProductSuggestionDto> lookup(UUID businessId, Collection<String> codes) {
+        TenantCache cache = caches.computeIfAbsent(businessId, k -> new TenantCache(maxEntriesPerTenant));
+        cache.lastReadAt = System.currentTimeMillis();
+
+        Map<String, ProductSuggestionDto> found = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        long version;
+        synchronized (cache) {
+            version = cache.version;
+            for (String code : codes) {
+                ProductSuggestionDto product = cache.bySku.get(code);
+                if (product != null) {
+                    found.put(code, product);
+                } else {
+                    misses.add(code);
+                }
+            }
+        }
+        if (misses.isEmpty()) {
+            return found;
+        }
+
+        List<ProductSuggestionDto> loaded = productRepository.findSuggestionsBySkuIn(businessId, misses);
+        loaded.forEach(p -> found.put(p.getSku(), p));
+        synchronized (cache) {
+            if (cache.version == version) {
+                loaded.forEach(cache::put);
+            }
+        }
+        return found;
+    }
+
+    public void productSaved(UUID businessId, Product product, String previousSku) {
+        afterCommit(businessId, cache -> {
+            cache.evict(previousSku);
+            cache.evict(product.getSku());
+        });
+    }
+
+    public void productDeleted(UUID businessId, String sku) {
+        afterCommit(businessId, cache -> cache.evict(sku));
+    }
+
+    // For writes that bypass the entity (catalog import)
+    public void invalidate(UUID businessId) {
+        afterCommit(businessId, cache -> cache.bySku.clear());
+    }
+
+    private void afterCommit(UUID businessId, Consumer<TenantCache> change) {
+        Runnable apply = () -> {
+            TenantCache cache = caches.get(businessId);
+            if (cache != null) {
+                synchronized (cache) {
+                    change.accept(cache);
+                    cache.version++;
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.scan.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictMillis;
+        caches.values().removeIf(cache -> cache.lastReadAt < cutoff);
+
+        int excess = caches.size() - maxTenants;
+        if (excess > 0) {
+            caches.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().lastReadAt))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(caches::remove);
+        }
+    }
+
+    // Guarded by this
+    private static final class TenantCache {
+        final LinkedHashMap<String, ProductSuggestionDto> bySku;
+        long version;
+        volatile long lastReadAt = System.currentTimeMillis();
+
+        TenantCache(int maxEntries) {
+            this.bySku = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ProductSuggestionDto> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        void put(ProductSuggestionDto product) {
+            bySku.put(product.getSku(), product);
+        }
+
+        void evict(String sku) {
+            if (sku != null) {
+                bySku.remove(sku);
+            }
+        }
+    }
+}
@@ -1,18 +1,36 @@
 package com.sbms.trading_service.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+import com.sbms.trading_service.dto.DemandForecastResponse;
+import com.sbms.trading_service.dto.OffsetPage;
 import com.sbms.trading_service.dto.ProductHistoryResponse;
 import com.sbms.trading_service.dto.ProductImportDto;
+import com.sbms.trading_service.dto.ProductImportJobResponse;
 import com.sbms.trading_service.dto.ProductRequest;
 import com.sbms.trading_service.dto.ProductResponse;
+import com.sbms.trading_service.dto.ProductScanResponse;
+import com.sbms.trading_service.dto.ProductSuggestionDto;
+import com.sbms.trading_service.dto.StockLevelResponse;
+import com.sbms.trading_service.dto.StockMovementResponse;
 
 public interface ProductService {
 	public ProductResponse addProduct(ProductRequest request, UUID businessId);
 	public List<ProductResponse> getMyProducts(UUID businessId, String search);
+    OffsetPage<ProductResponse> getProductsPage(UUID businessId, String search, Long categoryId, boolean lowStock, int page, int size, String sort, String direction);
+    List<ProductSuggestionDto> suggestProducts(UUID businessId, String query, int limit);
+    ProductScanResponse scanProducts(UUID businessId, List<String> codes);
 	ProductResponse updateProduct(Long productId, ProductRequest request, UUID businessId);
     List<ProductResponse> bulkAddProducts(List<ProductImportDto> products, UUID businessId);
     String deleteProduct(Long productId, UUID businessId);
     ProductHistoryResponse getProductTransactionHistory(Long productId, UUID businessId);
+    StockLevelResponse getStockAt(Long productId, UUID businessId, LocalDateTime at);
+    List<StockMovementResponse> getStockMovements(Long productId, UUID businessId, LocalDateTime from, LocalDateTime to, int limit);
+    DemandForecastResponse getDemandForecast(Long productId, UUID businessId, int horizonDays);
+    ProductImportJobResponse startImport(UUID businessId, String format, InputStream upload) throws IOException;
+    ProductImportJobResponse getImportJob(Long jobId, UUID businessId);
 }
@@ -1,32 +1,56 @@
 package com.sbms.trading_service.service;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.math.BigDecimal;
 import java.util.HashMap;
-import com.sbms.trading_service.entity.TransactionProduct;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.time.LocalDateTime;
 
 import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.sbms.trading_service.customexceptions.ResourceNotFoundException;
+import com.sbms.trading_service.dto.DemandForecastResponse;
+import com.sbms.trading_service.dto.OffsetPage;
 import com.sbms.trading_service.dto.ProductHistoryResponse;
 import com.sbms.trading_service.dto.ProductHistoryResponse.TransactionHistoryDto;
 import com.sbms.trading_service.dto.ProductRequest;
 import com.sbms.trading_service.dto.ProductResponse;
+import com.sbms.trading_service.dto.ProductScanResponse;
+import com.sbms.trading_service.dto.ProductSuggestionDto;
+import com.sbms.trading_service.dto.StockLevelResponse;
+import com.sbms.trading_service.dto.StockMovementResponse;
+import com.sbms.trading_service.entity.CatalogTombstone;
 import com.sbms.trading_service.entity.Category;
 import com.sbms.trading_service.entity.Product;
-import com.sbms.trading_service.entity.Transaction;
+import com.sbms.trading_service.entity.StockMovement;
 import com.sbms.trading_service.entity.Unit;
 import com.sbms.trading_service.dto.BulkProductRequest;
 import com.sbms.trading_service.dto.ProductImportDto;
+import com.sbms.trading_service.dto.ProductImportJobResponse;
+import com.sbms.trading_service.entity.ProductImportJob;
+import com.sbms.trading_service.enums.CatalogEntityType;
+import com.sbms.trading_service.enums.StockMovementType;
 import com.sbms.trading_service.enums.TransactionType;
+import com.sbms.trading_service.repository.CatalogTombstoneRepository;
 import com.sbms.trading_service.repository.CategoryRepository;
 import com.sbms.trading_service.repository.ProductRepository;
+import com.sbms.trading_service.repository.StockMovementRepository;
+import com.sbms.trading_service.repository.StockSnapshotRepository;
 import com.sbms.trading_service.repository.TransactionRepository;
 import com.sbms.trading_service.repository.UnitRepository;
 
@@ -41,6 +65,31 @@ public class ProductServiceImpl implements ProductService {
     private final UnitRepository unitRepository;
     private final TransactionRepository transactionRepository;
     private final ModelMapper modelMapper;
+    private final StockMovementRepository stockMovementRepository;
+    private final StockSnapshotRepository stockSnapshotRepository;
+    private final DashboardCache dashboardCache;
+    private final DashboardEventStream dashboardEventStream;
+    private final DemandForecaster demandForecaster;
+    private final ProductImportEngine productImportEngine;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductScanCache productScanCache;
+    private final CatalogTombstoneRepository catalogTombstoneRepository;
+
+    private static final int MAX_MOVEMENTS = 500;
+    private static final int MAX_FORECAST_DAYS = 90;
+    private static final int MAX_SCAN_CODES = 200;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int HISTORY_SIZE = 5;
+
+    // Sortable list columns -> Product properties
+    private static final Map<String, String> SORT_PROPERTIES = Map.of(
+            "name", "name",
+            "sku", "sku",
+            "stock", "currentStock",
+            "buyPrice", "buyPrice",
+            "sellPrice", "sellPrice",
+            "createdAt", "createdAt",
+            "updatedAt", "updatedAt");
 
     @Override
     @Transactional
@@ -59,8 +108,17 @@ public class ProductServiceImpl implements ProductService {
         product.setBusinessId(businessId);
         product.setCategory(category);
         product.setUnit(unit);
+        normalizeSku(product);
+        if (product.getSku() != null && productRepository.existsByBusinessIdAndSku(businessId, product.getSku())) {
+            throw new RuntimeException("SKU already in use: " + product.getSku());
+        }
 
         Product savedProduct = productRepository.save(product);
+        recordStockMovement(savedProduct, StockMovementType.OPENING, savedProduct.getCurrentStock());
+        dashboardCache.invalidate(businessId);
+        dashboardEventStream.stockLevelChanged(businessId, savedProduct, false);
+        productSuggestIndex.productSaved(businessId, savedProduct);
+        productScanCache.productSaved(businessId, savedProduct, null);
 
         ProductResponse response = modelMapper.map(savedProduct, ProductResponse.class);
         response.setCategoryId(savedProduct.getCategory().getId());
@@ -109,8 +167,15 @@ public class ProductServiceImpl implements ProductService {
                 product.setUnit(unit);
                 product.setCurrentStock(importDto.getQty());
                 product.setMinStock(importDto.getMinStock());
+                normalizeSku(product);
+                if (product.getSku() != null && productRepository.existsByBusinessIdAndSku(businessId, product.getSku())) {
+                    continue;
+                }
 
                 Product savedProduct = productRepository.saveAndFlush(product);
+                recordStockMovement(savedProduct, StockMovementType.OPENING, savedProduct.getCurrentStock());
+                productSuggestIndex.productSaved(businessId, savedProduct);
+                productScanCache.productSaved(businessId, savedProduct, null);
 
                 // 5. Map to response
                 ProductResponse response = modelMapper.map(savedProduct, ProductResponse.class);
@@ -125,10 +190,19 @@ public class ProductServiceImpl implements ProductService {
                 System.err.println("Error importing product " + importDto.getName() + ": " + e.getMessage());
             }
         }
-        
+
+        if (!successfulImports.isEmpty()) {
+            dashboardCache.invalidate(businessId);
+        }
         return successfulImports;
     }
 
+    // Stored trimmed with blank as null, which is what the unique SKU index and scan lookups expect
+    private static void normalizeSku(Product product) {
+        String sku = product.getSku();
+        product.setSku(sku == null || sku.isBlank() ? null : sku.trim());
+    }
+
     private boolean isValid(ProductImportDto dto) {
         return dto.getName() != null && !dto.getName().trim().isEmpty() &&
                dto.getCategoryName() != null && !dto.getCategoryName().trim().isEmpty() &&
@@ -142,32 +216,84 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(readOnly = true)
     public List<ProductResponse> getMyProducts(UUID businessId, String search) {
-        List<Product> products;
-        
-        if (search != null && !search.trim().isEmpty()) {
-            products = productRepository.findByBusinessIdAndNameContainingIgnoreCase(businessId, search);
-        } else {
-            products = productRepository.findAllByBusinessId(businessId);
+        return productRepository.findResponses(businessId, null, false, toLikePattern(search), Pageable.unpaged())
+                .getContent();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OffsetPage<ProductResponse> getProductsPage(UUID businessId, String search, Long categoryId,
+            boolean lowStock, int page, int size, String sort, String direction) {
+        String property = SORT_PROPERTIES.get(sort);
+        if (property == null) {
+            throw new RuntimeException("Unsupported sort: " + sort + ". Use one of " + SORT_PROPERTIES.keySet());
         }
+        Sort.Direction dir = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        // id breaks ties so rows don't move between pages
+        Sort order = Sort.by(dir, property).and(Sort.by(dir, "id"));
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        Page<ProductResponse> result = productRepository.findResponses(businessId, categoryId, lowStock,
+                toLikePattern(search), PageRequest.of(Math.max(0, page), pageSize, order));
+
+        return OffsetPage.<ProductResponse>builder()
+                .items(result.getContent())
+                .page(result.getNumber())
+                .size(result.getSize())
+                .totalItems(result.getTotalElements())
+                .totalPages(result.getTotalPages())
+                .build();
+    }
 
-        return products.stream()
-                .map(product -> {
-                    ProductResponse response = modelMapper.map(product, ProductResponse.class);
-                    response.setCategoryId(product.getCategory().getId());
-                    response.setUnitId(product.getUnit().getId());
-                    response.setCategoryName(product.getCategory().getName());
-                    response.setUnitName(product.getUnit().getName());
-                    response.setUnitSymbol(product.getUnit().getSymbol());
-                    return response;
-                })
-                .collect(Collectors.toList());
+    private static String toLikePattern(String search) {
+        if (search == null || search.isBlank()) {
+            return null;
+        }
+        String escaped = search.trim().toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    @Override
+    public List<ProductSuggestionDto> suggestProducts(UUID businessId, String query, int limit) {
+        return productSuggestIndex.suggest(businessId, query, limit);
     }
     
+    @Override
+    public ProductScanResponse scanProducts(UUID businessId, List<String> codes) {
+        Set<String> distinct = new LinkedHashSet<>();
+        if (codes != null) {
+            for (String code : codes) {
+                if (code != null && !code.isBlank()) {
+                    distinct.add(code.trim());
+                }
+            }
+        }
+        if (distinct.size() > MAX_SCAN_CODES) {
+            throw new RuntimeException("At most " + MAX_SCAN_CODES + " codes can be scanned per request");
+        }
+
+        Map<String, ProductSuggestionDto> products = productScanCache.lookup(businessId, distinct);
+        Map<String, ProductSuggestionDto> found = new LinkedHashMap<>();
+        List<String> notFound = new ArrayList<>();
+        for (String code : distinct) {
+            ProductSuggestionDto product = products.get(code);
+            if (product != null) {
+                found.put(code, product);
+            } else {
+                notFound.add(code);
+            }
+        }
+        return ProductScanResponse.builder()
+                .found(found)
+                .notFound(notFound)
+                .build();
+    }
+
     @Override
     @Transactional
     public ProductResponse updateProduct(Long productId, ProductRequest request, UUID businessId) {
-        // 1. Find the existing product
-        Product product = productRepository.findById(productId)
+        // 1. Find the existing product, locked against concurrent stock updates from bills
+        Product product = productRepository.findByIdForUpdate(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
 
         // 2. SECURITY Check
@@ -175,8 +301,16 @@ public class ProductServiceImpl implements ProductService {
             throw new ResourceNotFoundException("Unauthorized: You do not own this product");
         }
 
+        BigDecimal oldStock = product.getCurrentStock();
+        String oldSku = product.getSku();
+        boolean wasLow = oldStock != null && product.getMinStock() != null
+                && oldStock.compareTo(product.getMinStock()) <= 0;
         modelMapper.map(request, product);
-
+        normalizeSku(product);
+        if (product.getSku() != null && !product.getSku().equals(oldSku)
+                && productRepository.existsByBusinessIdAndSkuAndIdNot(businessId, product.getSku(), productId)) {
+            throw new RuntimeException("SKU already in use: " + product.getSku());
+        }
         
         
         if (!product.getCategory().getId().equals(request.getCategoryId())) {
@@ -193,6 +327,13 @@ public class ProductServiceImpl implements ProductService {
 
         // 5. Save & Return
         Product savedProduct = productRepository.save(product);
+        if (oldStock != null && savedProduct.getCurrentStock() != null) {
+            recordStockMovement(savedProduct, StockMovementType.ADJUSTMENT, savedProduct.getCurrentStock().subtract(oldStock));
+        }
+        dashboardCache.invalidate(businessId);
+        dashboardEventStream.stockLevelChanged(businessId, savedProduct, wasLow);
+        productSuggestIndex.productSaved(businessId, savedProduct);
+        productScanCache.productSaved(businessId, savedProduct, oldSku);
         
         ProductResponse response = modelMapper.map(savedProduct, ProductResponse.class);
         
@@ -218,6 +359,12 @@ public class ProductServiceImpl implements ProductService {
         }
 
         productRepository.delete(product);
+        CatalogTombstone tombstone = new CatalogTombstone(CatalogEntityType.PRODUCT, productId);
+        tombstone.setBusinessId(businessId);
+        catalogTombstoneRepository.save(tombstone);
+        dashboardCache.invalidate(businessId);
+        productSuggestIndex.productDeleted(businessId, productId);
+        productScanCache.productDeleted(businessId, product.getSku());
         return "Product deleted successfully";
     }
 
@@ -232,91 +379,24 @@ public class ProductServiceImpl implements ProductService {
             throw new ResourceNotFoundException("Unauthorized: You do not own this product");
         }
 
-        // Fetch sales transactions
-        List<Transaction> salesTransactions = transactionRepository
-                .findTransactionsByProductAndType(productId, TransactionType.SALE, businessId);
-
-        // Fetch purchase transactions
-        List<Transaction> purchaseTransactions = transactionRepository
-                .findTransactionsByProductAndType(productId, TransactionType.PURCHASE, businessId);
-
-        
-        List<TransactionHistoryDto> sales = new ArrayList<>();
-        salesLoop:
-        for (Transaction transaction : salesTransactions) {
-            for (TransactionProduct tp : transaction.getProducts()) {
-                if (tp.getProduct().getId().equals(productId)
-                        && tp.getPrice() != null
-                        && tp.getPrice().compareTo(new BigDecimal("0.01")) != 0) {
-                    sales.add(TransactionHistoryDto.builder()
-                            .transactionId(transaction.getId())
-                            .party(transaction.getPartyName())
-                            .date(transaction.getDate())
-                            .qty(tp.getQty())
-                            .rate(tp.getPrice())
-                            .total(tp.getAmount())
-                            .build());
-                    if (sales.size() >= 5) break salesLoop;
-                }
-            }
-        }
-
-        List<TransactionHistoryDto> purchases = new ArrayList<>();
-        purchasesLoop:
-        for (Transaction transaction : purchaseTransactions) {
-            for (TransactionProduct tp : transaction.getProducts()) {
-                if (tp.getProduct().getId().equals(productId)
-                        && tp.getPrice() != null
-                        && tp.getPrice().compareTo(new BigDecimal("0.01")) != 0) {
-                    purchases.add(TransactionHistoryDto.builder()
-                            .transactionId(transaction.getId())
-                            .party(transaction.getPartyName())
-                            .date(transaction.getDate())
-                            .qty(tp.getQty())
-                            .rate(tp.getPrice())
-                            .total(tp.getAmount())
-                            .build());
-                    if (purchases.size() >= 5) break purchasesLoop;
-                }
-            }
-        }
+        // Last HISTORY_SIZE priced lines per side, read newest-first from the product's line index
+        List<TransactionHistoryDto> sales = recentLines(productId, TransactionType.SALE, businessId);
+        List<TransactionHistoryDto> purchases = recentLines(productId, TransactionType.PURCHASE, businessId);
 
-        // Compute recommended price: mode of last 5 sales' rates (most frequent). If none, fallback to product.sellPrice
+        // Recommended price: mode of the recent sale rates, the most recent one on ties. If none, fallback to product.sellPrice
         BigDecimal recommendedPrice = null;
-        try {
-            List<BigDecimal> recentPrices = new ArrayList<>();
-            recentLoop:
-            for (Transaction t : salesTransactions) {
-                for (TransactionProduct tp : t.getProducts()) {
-                    if (tp.getProduct().getId().equals(productId)
-                            && tp.getPrice() != null
-                            && tp.getPrice().compareTo(new BigDecimal("0.01")) != 0) {
-                        recentPrices.add(tp.getPrice());
-                        if (recentPrices.size() >= 5) break recentLoop;
-                    }
-                }
-            }
-
-            if (!recentPrices.isEmpty()) {
-            // frequency map
+        if (!sales.isEmpty()) {
             Map<BigDecimal, Long> freq = new HashMap<>();
-            for (BigDecimal p : recentPrices) {
-                freq.merge(p, 1L, Long::sum);
+            for (TransactionHistoryDto sale : sales) {
+                freq.merge(sale.getRate(), 1L, Long::sum);
             }
-            long maxCount = freq.values().stream().mapToLong(Long::longValue).max().orElse(0L);
-            // pick the most recent price among those with maxCount
-            BigDecimal chosen = null;
-            for (BigDecimal p : recentPrices) {
-                if (freq.getOrDefault(p, 0L) == maxCount) {
-                chosen = p;
-                break;
+            long maxCount = Collections.max(freq.values());
+            for (TransactionHistoryDto sale : sales) {
+                if (freq.get(sale.getRate()) == maxCount) {
+                    recommendedPrice = sale.getRate();
+                    break;
                 }
             }
-            recommendedPrice = chosen;
-            }
-        } catch (Exception ex) {
-            // swallow and fallback
-            recommendedPrice = null;
         }
 
         if (recommendedPrice == null) {
@@ -329,4 +409,109 @@ public class ProductServiceImpl implements ProductService {
             .recommendedPrice(recommendedPrice)
             .build();
     }
-}
\ No newline at end of file
+
+    private List<TransactionHistoryDto> recentLines(Long productId, TransactionType type, UUID businessId) {
+        return transactionRepository.findRecentProductLines(productId, type, businessId, PageRequest.of(0, HISTORY_SIZE))
+                .stream()
+                .map(row -> TransactionHistoryDto.builder()
+                        .transactionId(row.getTransactionId())
+                        .party(row.getPartyName())
+                        .date(row.getDate())
+                        .qty(row.getQty())
+                        .rate(row.getPrice())
+                        .total(row.getAmount())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    // Stock written through the entity (creation, manual edit) still goes into the ledger
+    private void recordStockMovement(Product product, StockMovementType type, BigDecimal quantity) {
+        if (quantity == null || quantity.compareTo(BigDecimal.ZERO) == 0) {
+            return;
+        }
+        productRepository.appendStockMovements(product.getBusinessId(),
+                List.of(new StockMovement(product.getId(), null, type, quantity)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StockLevelResponse getStockAt(Long productId, UUID businessId, LocalDateTime at) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+
+        if (!product.getBusinessId().equals(businessId)) {
+            throw new ResourceNotFoundException("Unauthorized: You do not own this product");
+        }
+
+        // Nearest snapshot at or before the requested time plus the movements since; without one,
+        // walk back from the live stock
+        BigDecimal stock = stockSnapshotRepository
+                .findFirstByProductIdAndSnapshotAtLessThanEqualOrderBySnapshotAtDesc(productId, at)
+                .map(snapshot -> snapshot.getStock()
+                        .add(stockMovementRepository.sumBetween(productId, snapshot.getSnapshotAt(), at)))
+                .orElseGet(() -> product.getCurrentStock()
+                        .subtract(stockMovementRepository.sumAfter(productId, at)));
+
+        return StockLevelResponse.builder()
+                .productId(productId)
+                .at(at)
+                .stock(stock)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StockMovementResponse> getStockMovements(Long productId, UUID businessId, LocalDateTime from,
+            LocalDateTime to, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_MOVEMENTS));
+        return stockMovementRepository.findHistory(productId, businessId, from, to, PageRequest.of(0, pageSize))
+                .stream()
+                .map(m -> StockMovementResponse.builder()
+                        .id(m.getId())
+                        .date(m.getCreatedAt())
+                        .type(m.getType().name())
+                        .quantity(m.getQuantity())
+                        .transactionId(m.getTransactionId())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DemandForecastResponse getDemandForecast(Long productId, UUID businessId, int horizonDays) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+
+        if (!product.getBusinessId().equals(businessId)) {
+            throw new ResourceNotFoundException("Unauthorized: You do not own this product");
+        }
+
+        return demandForecaster.forecast(product, Math.max(1, Math.min(horizonDays, MAX_FORECAST_DAYS)));
+    }
+
+    @Override
+    public ProductImportJobResponse startImport(UUID businessId, String format, InputStream upload) throws IOException {
+        return toImportJobResponse(productImportEngine.start(businessId, format, upload));
+    }
+
+    @Override
+    public ProductImportJobResponse getImportJob(Long jobId, UUID businessId) {
+        return toImportJobResponse(productImportEngine.getJob(jobId, businessId));
+    }
+
+    private ProductImportJobResponse toImportJobResponse(ProductImportJob job) {
+        return ProductImportJobResponse.builder()
+                .jobId(job.getId())
+                .status(job.getStatus().name())
+                .format(job.getFormat())
+                .processedRows(job.getProcessedRows())
+                .insertedRows(job.getInsertedRows())
+                .updatedRows(job.getUpdatedRows())
+                .failedRows(job.getFailedRows())
+                .errors(job.getErrors())
+                .message(job.getMessage())
+                .startedAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
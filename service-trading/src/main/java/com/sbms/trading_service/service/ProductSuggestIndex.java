@@ -0,0 +1,305 @@
+package com.sbms.trading_service.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sbms.trading_service.dto.ProductSuggestionDto;
+import com.sbms.trading_service.entity.Product;
+import com.sbms.trading_service.repository.ProductRepository;
+
+/**
+ * In-memory type-ahead over product name words, SKU and HSN, per business. Every indexed token
+ * is kept in one sorted array, so each query term is a binary search plus a walk over the
+ * tokens starting with it; results are ranked (code match, then first word, then any word;
+ * exact before prefix; shorter names first) and cut to the limit.
+ *
+ * A business is loaded with one projection query on its first search. Product writes update
+ * its map after commit and the sorted array is rebuilt on the next search; changes committed
+ * while a business is loading are queued and replayed on top of the load. Bulk imports drop the
+ * business instead, so the next search reloads it. Idle businesses are evicted.
+ */
+@Component
+public class ProductSuggestIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_LIMIT = 50;
+
+    // Token ranks, best first
+    private static final byte CODE = 0;
+    private static final byte FIRST_WORD = 1;
+    private static final byte OTHER_WORD = 2;
+
+    private final ProductRepository productRepository;
+    private final Map<UUID, TenantIndex> indexes = new ConcurrentHashMap<>();
+
+    private final long idleEvictMillis;
+    private final int maxTenants;
+
+    public ProductSuggestIndex(ProductRepository productRepository,
+            @Value("${product.suggest.idle-evict-minutes:30}") long idleEvictMinutes,
+            @Value("${product.suggest.max-tenants:1000}") int maxTenants) {
+        this.productRepository = productRepository;
+        this.idleEvictMillis = idleEvictMinutes * 60_000;
+        this.maxTenants = maxTenants;
+    }
+
+    public List<ProductSuggestionDto> suggest(UUID businessId, String query, int limit) {
+        String[] terms = tokens(query);
+        if (terms.length == 0) {
+            return List.of();
+        }
+        TenantIndex index = loadedIndex(businessId);
+        index.lastReadAt = System.currentTimeMillis();
+        return index.snapshot().search(terms, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    public void productSaved(UUID businessId, Product product) {
+        ProductSuggestionDto suggestion = new ProductSuggestionDto(product.getId(), product.getName(), product.getSku(),
+                product.getHsn(), product.getSellPrice(), product.getGstRate(),
+                product.getUnit() != null ? product.getUnit().getSymbol() : null);
+        afterCommit(() -> apply(businessId, new Change(product.getId(), suggestion)));
+    }
+
+    public void productDeleted(UUID businessId, Long productId) {
+        afterCommit(() -> apply(businessId, new Change(productId, null)));
+    }
+
+    // For writes that bypass the entity (catalog import): reload on the next search
+    public void invalidate(UUID businessId) {
+        afterCommit(() -> indexes.remove(businessId));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void apply(UUID businessId, Change change) {
+        TenantIndex index = indexes.get(businessId);
+        if (index == null) {
+            return; // Not loaded; a later load reads it from Postgres
+        }
+        synchronized (index) {
+            if (index.pending != null) {
+                index.pending.add(change);
+            } else {
+                index.apply(change);
+            }
+        }
+    }
+
+    private TenantIndex loadedIndex(UUID businessId) {
+        TenantIndex index = indexes.computeIfAbsent(businessId, k -> new TenantIndex());
+        synchronized (index.loadLock) {
+            if (index.loaded) {
+                return index;
+            }
+            try {
+                List<ProductSuggestionDto> products = productRepository.findSuggestionsByBusinessId(businessId);
+                synchronized (index) {
+                    products.forEach(p -> index.products.put(p.getId(), p));
+                    index.pending.forEach(index::apply);
+                    index.pending = null;
+                    index.snapshot = null;
+                }
+                index.loaded = true;
+                return index;
+            } catch (RuntimeException e) {
+                indexes.remove(businessId, index);
+                throw e;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.suggest.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictMillis;
+        indexes.entrySet().removeIf(e -> e.getValue().loaded && e.getValue().lastReadAt < cutoff);
+
+        int excess = indexes.size() - maxTenants;
+        if (excess > 0) {
+            indexes.entrySet().stream()
+                    .filter(e -> e.getValue().loaded)
+                    .sorted(Comparator.comparingLong(e -> e.getValue().lastReadAt))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(indexes::remove);
+        }
+    }
+
+    private static String[] tokens(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        return Arrays.stream(SEPARATORS.split(text.toLowerCase().trim()))
+                .filter(t -> !t.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    // product null means deleted
+    private record Change(Long productId, ProductSuggestionDto product) {
+    }
+
+    private static final class TenantIndex {
+        final Object loadLock = new Object();
+        // Guarded by this; pending is non-null until the initial load is in
+        final Map<Long, ProductSuggestionDto> products = new HashMap<>();
+        List<Change> pending = new ArrayList<>();
+        volatile Snapshot snapshot;
+        volatile boolean loaded;
+        volatile long lastReadAt = System.currentTimeMillis();
+
+        void apply(Change change) {
+            if (change.product() == null) {
+                products.remove(change.productId());
+            } else {
+                products.put(change.productId(), change.product());
+            }
+            snapshot = null;
+        }
+
+        Snapshot snapshot() {
+            Snapshot current = snapshot;
+            if (current != null) {
+                return current;
+            }
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = Snapshot.build(products.values());
+                }
+                return snapshot;
+            }
+        }
+    }
+
+    /** Immutable sorted token array over one version of a business's products. */
+    private static final class Snapshot {
+        final ProductSuggestionDto[] docs;
+        final String[] tokens;
+        final int[] tokenDocs;
+        final byte[] tokenRanks;
+
+        private Snapshot(ProductSuggestionDto[] docs, String[] tokens, int[] tokenDocs, byte[] tokenRanks) {
+            this.docs = docs;
+            this.tokens = tokens;
+            this.tokenDocs = tokenDocs;
+            this.tokenRanks = tokenRanks;
+        }
+
+        static Snapshot build(Iterable<ProductSuggestionDto> products) {
+            List<ProductSuggestionDto> docs = new ArrayList<>();
+            List<Posting> postings = new ArrayList<>();
+            for (ProductSuggestionDto product : products) {
+                int doc = docs.size();
+                docs.add(product);
+                String[] words = tokens(product.getName());
+                for (int i = 0; i < words.length; i++) {
+                    postings.add(new Posting(words[i], doc, i == 0 ? FIRST_WORD : OTHER_WORD));
+                }
+                addCode(postings, product.getSku(), doc);
+                addCode(postings, product.getHsn(), doc);
+            }
+            postings.sort(Comparator.comparing(Posting::token));
+
+            String[] tokens = new String[postings.size()];
+            int[] tokenDocs = new int[postings.size()];
+            byte[] tokenRanks = new byte[postings.size()];
+            for (int i = 0; i < postings.size(); i++) {
+                Posting posting = postings.get(i);
+                tokens[i] = posting.token();
+                tokenDocs[i] = posting.doc();
+                tokenRanks[i] = posting.rank();
+            }
+            return new Snapshot(docs.toArray(ProductSuggestionDto[]::new), tokens, tokenDocs, tokenRanks);
+        }
+
+        // The whole code and its parts, so "abc-12" and "abc12" both find ABC-12
+        private static void addCode(List<Posting> postings, String code, int doc) {
+            String[] parts = tokens(code);
+            if (parts.length == 0) {
+                return;
+            }
+            for (String part : parts) {
+                postings.add(new Posting(part, doc, CODE));
+            }
+            if (parts.length > 1) {
+                postings.add(new Posting(String.join("", parts), doc, CODE));
+            }
+        }
+
+        /** Products matching every term as a token prefix; lower score is better. */
+        List<ProductSuggestionDto> search(String[] terms, int limit) {
+            Map<Integer, Integer> scores = null;
+            for (String term : terms) {
+                Map<Integer, Integer> matches = match(term);
+                if (scores == null) {
+                    scores = matches;
+                } else {
+                    scores.keySet().retainAll(matches.keySet());
+                    scores.replaceAll((doc, score) -> score + matches.get(doc));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            Map<Integer, Integer> ranked = scores;
+            return ranked.keySet().stream()
+                    .sorted(Comparator.<Integer>comparingInt(ranked::get)
+                            .thenComparingInt(doc -> docs[doc].getName() != null ? docs[doc].getName().length() : 0)
+                            .thenComparing(doc -> docs[doc].getName(), Comparator.nullsLast(Comparator.naturalOrder())))
+                    .limit(limit)
+                    .map(doc -> docs[doc])
+                    .toList();
+        }
+
+        // Best score per product among the tokens starting with the term
+        private Map<Integer, Integer> match(String term) {
+            Map<Integer, Integer> matches = new HashMap<>();
+            for (int i = lowerBound(term); i < tokens.length && tokens[i].startsWith(term); i++) {
+                int score = tokenRanks[i] * 2 + (tokens[i].length() == term.length() ? 0 : 1);
+                matches.merge(tokenDocs[i], score, Math::min);
+            }
+            return matches;
+        }
+
+        private int lowerBound(String term) {
+            int low = 0;
+            int high = tokens.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (tokens[mid].compareTo(term) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private record Posting(String token, int doc, byte rank) {
+        }
+    }
+}
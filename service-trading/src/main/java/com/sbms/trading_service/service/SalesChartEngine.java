@@ -0,0 +1,122 @@
+package com.sbms.trading_service.service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+import com.sbms.trading_service.dto.ChartDataPointDto;
+import com.sbms.trading_service.enums.ChartGranularity;
+import com.sbms.trading_service.enums.TransactionType;
+import com.sbms.trading_service.repository.SalesRollupDailyRepository;
+import com.sbms.trading_service.repository.SalesRollupHourlyRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Sales chart for any date range. Grouping happens in SQL over the rollup tables with
+ * date_trunc, so only aggregated points come back and a one-year chart costs the same
+ * memory as a one-day chart. Empty buckets are filled with zero here.
+ */
+@Component
+@RequiredArgsConstructor
+public class SalesChartEngine {
+
+    private static final DateTimeFormatter DAY_MONTH = DateTimeFormatter.ofPattern("dd MMM");
+    private static final DateTimeFormatter WEEKDAY = DateTimeFormatter.ofPattern("EEE");
+    private static final DateTimeFormatter MONTH_YEAR = DateTimeFormatter.ofPattern("MMM yyyy");
+
+    // Every bucket becomes a point, empty or not; 31 days of hours fit
+    private static final int MAX_POINTS = 800;
+
+    private final SalesRollupDailyRepository salesRollupDailyRepository;
+    private final SalesRollupHourlyRepository salesRollupHourlyRepository;
+
+    // granularity may be null to pick one from the length of the range
+    public List<ChartDataPointDto> salesChart(UUID businessId, LocalDate start, LocalDate end,
+            ChartGranularity granularity) {
+        if (end.isBefore(start)) {
+            throw new RuntimeException("Chart end date is before start date");
+        }
+        ChartGranularity unit = granularity != null ? granularity : ChartGranularity.forRange(start, end);
+        if (unit == ChartGranularity.HOUR && start.plusDays(31).isBefore(end)) {
+            throw new RuntimeException("Hourly charts are limited to 31 days");
+        }
+        if (unit.buckets(start, end) > MAX_POINTS) {
+            throw new RuntimeException("Charts by " + unit.sqlUnit() + " are limited to " + MAX_POINTS
+                    + " points; use a coarser granularity or a shorter range");
+        }
+
+        List<Object[]> rows = unit == ChartGranularity.HOUR
+                ? salesRollupHourlyRepository.sumByBucket(businessId, TransactionType.SALE.name(), unit.sqlUnit(),
+                        start.atStartOfDay(), end.plusDays(1).atStartOfDay())
+                : salesRollupDailyRepository.sumByBucket(businessId, TransactionType.SALE.name(), unit.sqlUnit(),
+                        start, end);
+
+        Map<LocalDateTime, BigDecimal> totals = new HashMap<>();
+        for (Object[] row : rows) {
+            totals.put(toLocalDateTime(row[0]), (BigDecimal) row[1]);
+        }
+
+        boolean singleDay = start.equals(end);
+        boolean withinWeek = !end.isAfter(start.plusDays(6));
+        List<ChartDataPointDto> points = new ArrayList<>();
+        LocalDateTime last = end.atTime(23, 59);
+        for (LocalDateTime bucket = firstBucket(start, unit); !bucket.isAfter(last); bucket = next(bucket, unit)) {
+            points.add(ChartDataPointDto.builder()
+                    .name(label(bucket, unit, singleDay, withinWeek))
+                    .sales(totals.getOrDefault(bucket, BigDecimal.ZERO))
+                    .build());
+        }
+        return points;
+    }
+
+    // Same alignment as date_trunc: weeks start on Monday, months on the 1st
+    private LocalDateTime firstBucket(LocalDate start, ChartGranularity unit) {
+        return switch (unit) {
+            case HOUR, DAY -> start.atStartOfDay();
+            case WEEK -> start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+            case MONTH -> start.withDayOfMonth(1).atStartOfDay();
+        };
+    }
+
+    private LocalDateTime next(LocalDateTime bucket, ChartGranularity unit) {
+        return switch (unit) {
+            case HOUR -> bucket.plusHours(1);
+            case DAY -> bucket.plusDays(1);
+            case WEEK -> bucket.plusWeeks(1);
+            case MONTH -> bucket.plusMonths(1);
+        };
+    }
+
+    private String label(LocalDateTime bucket, ChartGranularity unit, boolean singleDay, boolean withinWeek) {
+        return switch (unit) {
+            case HOUR -> {
+                int hour = bucket.getHour();
+                String time = String.format("%d %s", hour == 0 ? 12 : (hour > 12 ? hour - 12 : hour),
+                        hour < 12 ? "AM" : "PM");
+                yield singleDay ? time : bucket.format(DAY_MONTH) + " " + time;
+            }
+            case DAY -> withinWeek ? bucket.format(WEEKDAY) : bucket.format(DAY_MONTH);
+            case WEEK -> bucket.format(DAY_MONTH);
+            case MONTH -> bucket.format(MONTH_YEAR);
+        };
+    }
+
+    private LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
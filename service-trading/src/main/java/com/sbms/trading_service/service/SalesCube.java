@@ -0,0 +1,434 @@
+package com.sbms.trading_service.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sbms.trading_service.dto.SalesComparisonRow;
+import com.sbms.trading_service.entity.Transaction;
+import com.sbms.trading_service.entity.TransactionProduct;
+import com.sbms.trading_service.enums.SalesComparison;
+import com.sbms.trading_service.enums.SalesDimension;
+import com.sbms.trading_service.enums.TransactionType;
+import com.sbms.trading_service.repository.SalesLineReader.SaleLine;
+import com.sbms.trading_service.repository.TransactionRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory columnar cube of sale lines (day x product x party) per business, for comparative
+ * analytics that would be far too slow through JPA. Each business's lines are kept in parallel
+ * primitive arrays: epoch day, dictionary ids for product and party, and amount/quantity as
+ * scaled longs. A query is one pass over those arrays.
+ *
+ * A business is loaded from Postgres on its first query and then kept current by the bill write
+ * paths: after commit, a bill's lines replace whatever the cube held for it (replaced rows are
+ * marked dead and compacted away later). Bills committed while a business is loading are
+ * buffered and replayed on top of the load, and since a replace is idempotent it doesn't matter
+ * whether the load already saw them. Businesses not queried for a while are dropped.
+ */
+@Component
+@Slf4j
+public class SalesCube {
+
+    private static final int AMOUNT_SCALE = 2;
+    private static final int QTY_SCALE = 3;
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 500;
+    // One row per day is allocated up front, so DAY grouping is capped to about a year
+    private static final int MAX_DAY_SLOTS = 366;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<UUID, TenantCube> cubes = new ConcurrentHashMap<>();
+
+    private final long idleEvictMillis;
+    private final int maxTenants;
+
+    public SalesCube(TransactionRepository transactionRepository, PlatformTransactionManager transactionManager,
+            @Value("${sales.cube.idle-evict-minutes:60}") long idleEvictMinutes,
+            @Value("${sales.cube.max-tenants:200}") int maxTenants) {
+        this.transactionRepository = transactionRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.idleEvictMillis = idleEvictMinutes * 60_000;
+        this.maxTenants = maxTenants;
+    }
+
+    /**
+     * Sales for [start, end] next to the same span shifted by the comparison, grouped by the
+     * dimension and optionally restricted to one product and/or party. PRODUCT and PARTY groups
+     * are sorted by current sales and cut to the limit; DAY rows are keyed by the current date,
+     * aligned by position with the previous span.
+     */
+    public List<SalesComparisonRow> compare(UUID businessId, LocalDate start, LocalDate end, SalesComparison comparison,
+            SalesDimension groupBy, Long productId, Long partyId, Integer limit) {
+        if (end.isBefore(start)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (limit != null && (limit < 1 || limit > MAX_LIMIT)) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (groupBy == SalesDimension.DAY && end.toEpochDay() - start.toEpochDay() + 1 > MAX_DAY_SLOTS) {
+            throw new RuntimeException("Daily comparisons cover at most " + MAX_DAY_SLOTS + " days");
+        }
+        TenantCube cube = loadedCube(businessId);
+        cube.lastReadAt = System.currentTimeMillis();
+
+        cube.lock.readLock().lock();
+        try {
+            Columns columns = cube.columns;
+            int productFilter = productId != null ? columns.productIds.getOrDefault(productId, -2) : -1;
+            int partyFilter = partyId != null ? columns.partyIds.getOrDefault(partyId, -2) : -1;
+
+            int curStart = (int) start.toEpochDay();
+            int curEnd = (int) end.toEpochDay();
+            int prevStart = (int) comparison.previous(start).toEpochDay();
+            int prevEnd = (int) comparison.previous(end).toEpochDay();
+
+            int slots = switch (groupBy) {
+                case TOTAL -> 1;
+                // The previous span can be a few days longer (e.g. a longer previous month), never more than that
+                case DAY -> Math.max(curEnd - curStart, prevEnd - prevStart) + 1;
+                case PRODUCT -> columns.productKeys.size();
+                case PARTY -> columns.partyKeys.size();
+            };
+            Totals totals = new Totals(slots);
+            if (productFilter != -2 && partyFilter != -2) {
+                columns.scan(totals, groupBy, productFilter, partyFilter, curStart, curEnd, prevStart, prevEnd);
+            }
+            return toRows(totals, groupBy, columns, start, limit != null ? limit : DEFAULT_LIMIT);
+        } finally {
+            cube.lock.readLock().unlock();
+        }
+    }
+
+    // Bill created or edited: after commit, its current lines replace what the cube holds for it
+    public void transactionChanged(UUID businessId, Transaction transaction) {
+        List<SaleLine> lines = new ArrayList<>();
+        if (transaction.getType() == TransactionType.SALE) {
+            for (TransactionProduct item : transaction.getProducts()) {
+                lines.add(new SaleLine(transaction.getId(), transaction.getDate(), item.getProduct().getId(),
+                        transaction.getPartyId(), item.getAmount(), item.getQty()));
+            }
+        }
+        afterCommit(businessId, transaction.getId(), lines);
+    }
+
+    public void transactionDeleted(UUID businessId, Long transactionId) {
+        afterCommit(businessId, transactionId, List.of());
+    }
+
+    // Checked after commit, not now: a load that starts before this commits must still get the bill
+    private void afterCommit(UUID businessId, Long transactionId, List<SaleLine> lines) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(businessId, transactionId, lines);
+                }
+            });
+        } else {
+            apply(businessId, transactionId, lines);
+        }
+    }
+
+    private void apply(UUID businessId, long transactionId, List<SaleLine> lines) {
+        TenantCube cube = cubes.get(businessId);
+        if (cube == null) {
+            return; // Not loaded; a later load reads it from Postgres
+        }
+        cube.lock.writeLock().lock();
+        try {
+            if (cube.pending != null) {
+                cube.pending.add(new Replacement(transactionId, lines));
+            } else {
+                cube.columns.replace(transactionId, lines);
+                cube.columns.compactIfSparse();
+            }
+        } finally {
+            cube.lock.writeLock().unlock();
+        }
+    }
+
+    private TenantCube loadedCube(UUID businessId) {
+        TenantCube cube = cubes.computeIfAbsent(businessId, k -> new TenantCube());
+        synchronized (cube) {
+            if (cube.loaded) {
+                return cube;
+            }
+            try {
+                long startedAt = System.currentTimeMillis();
+                // Loaded outside the lock so commits are never held up; they queue in cube.pending meanwhile
+                Columns columns = new Columns();
+                readOnlyTransaction.executeWithoutResult(status -> transactionRepository.forEachSaleLine(businessId,
+                        line -> columns.append(line.transactionId(), line)));
+
+                cube.lock.writeLock().lock();
+                try {
+                    for (Replacement replacement : cube.pending) {
+                        columns.replace(replacement.transactionId(), replacement.lines());
+                    }
+                    columns.compactIfSparse();
+                    cube.columns = columns;
+                    cube.pending = null;
+                    cube.loaded = true;
+                } finally {
+                    cube.lock.writeLock().unlock();
+                }
+                log.info("Sales cube for business {} loaded: {} lines in {} ms", businessId, columns.size,
+                        System.currentTimeMillis() - startedAt);
+                return cube;
+            } catch (RuntimeException e) {
+                cubes.remove(businessId, cube);
+                throw e;
+            }
+        }
+    }
+
+    // Drops businesses nobody has queried recently, then the least recently queried beyond the cap
+    @Scheduled(fixedDelayString = "${sales.cube.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictMillis;
+        cubes.entrySet().removeIf(e -> e.getValue().loaded && e.getValue().lastReadAt < cutoff);
+
+        int excess = cubes.size() - maxTenants;
+        if (excess > 0) {
+            cubes.entrySet().stream()
+                    .filter(e -> e.getValue().loaded)
+                    .sorted(Comparator.comparingLong(e -> e.getValue().lastReadAt))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(cubes::remove);
+        }
+    }
+
+    private List<SalesComparisonRow> toRows(Totals totals, SalesDimension groupBy, Columns columns, LocalDate start,
+            int limit) {
+        List<SalesComparisonRow> rows = new ArrayList<>();
+        for (int slot = 0; slot < totals.currentAmount.length; slot++) {
+            if (groupBy != SalesDimension.TOTAL && groupBy != SalesDimension.DAY
+                    && totals.currentAmount[slot] == 0 && totals.previousAmount[slot] == 0
+                    && totals.currentQty[slot] == 0 && totals.previousQty[slot] == 0) {
+                continue;
+            }
+            String key = switch (groupBy) {
+                case TOTAL -> "total";
+                case DAY -> start.plusDays(slot).toString();
+                case PRODUCT -> String.valueOf(columns.productKeys.get(slot));
+                case PARTY -> columns.partyKeys.get(slot) != null ? String.valueOf(columns.partyKeys.get(slot)) : "walk-in";
+            };
+            BigDecimal current = BigDecimal.valueOf(totals.currentAmount[slot], AMOUNT_SCALE);
+            BigDecimal previous = BigDecimal.valueOf(totals.previousAmount[slot], AMOUNT_SCALE);
+            rows.add(SalesComparisonRow.builder()
+                    .key(key)
+                    .current(current)
+                    .previous(previous)
+                    .currentQty(BigDecimal.valueOf(totals.currentQty[slot], QTY_SCALE))
+                    .previousQty(BigDecimal.valueOf(totals.previousQty[slot], QTY_SCALE))
+                    .changePercent(previous.signum() == 0 ? null
+                            : current.subtract(previous).multiply(BigDecimal.valueOf(100))
+                                    .divide(previous, 1, RoundingMode.HALF_UP))
+                    .build());
+        }
+
+        if (groupBy == SalesDimension.PRODUCT || groupBy == SalesDimension.PARTY) {
+            rows.sort(Comparator.comparing(SalesComparisonRow::getCurrent).reversed());
+            if (rows.size() > limit) {
+                return new ArrayList<>(rows.subList(0, limit));
+            }
+        }
+        return rows;
+    }
+
+    private static long scaled(BigDecimal value, int scale) {
+        return value == null ? 0 : value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    private record Replacement(long transactionId, List<SaleLine> lines) {
+    }
+
+    private static final class TenantCube {
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+        // Guarded by lock; pending is non-null until the initial load is installed
+        Columns columns = new Columns();
+        List<Replacement> pending = new ArrayList<>();
+        // Guarded by the cube's monitor
+        boolean loaded;
+        volatile long lastReadAt = System.currentTimeMillis();
+    }
+
+    private static final class Totals {
+        final long[] currentAmount;
+        final long[] previousAmount;
+        final long[] currentQty;
+        final long[] previousQty;
+
+        Totals(int slots) {
+            currentAmount = new long[slots];
+            previousAmount = new long[slots];
+            currentQty = new long[slots];
+            previousQty = new long[slots];
+        }
+    }
+
+    /** The column store for one business; not thread safe, TenantCube's lock guards it. */
+    private static final class Columns {
+        int size;
+        int[] day = new int[1024];      // epoch day
+        int[] product = new int[1024];  // index into productKeys
+        int[] party = new int[1024];    // index into partyKeys; 0 is walk-in
+        long[] amount = new long[1024]; // hundredths
+        long[] qty = new long[1024];    // thousandths
+        final BitSet dead = new BitSet();
+        int deadCount;
+
+        final Map<Long, Integer> productIds = new HashMap<>();
+        final List<Long> productKeys = new ArrayList<>();
+        final Map<Long, Integer> partyIds = new HashMap<>();
+        final List<Long> partyKeys = new ArrayList<>();
+        // Rows of each bill: start in the high 32 bits, count in the low 32; a bill's rows are always contiguous
+        final Map<Long, Long> rowsByTransaction = new HashMap<>();
+
+        Columns() {
+            partyKeys.add(null);
+        }
+
+        // Initial load: lines arrive grouped by transaction
+        void append(long transactionId, SaleLine line) {
+            Long range = rowsByTransaction.get(transactionId);
+            int row = addRow(line);
+            if (range == null) {
+                rowsByTransaction.put(transactionId, ((long) row << 32) | 1);
+            } else {
+                rowsByTransaction.put(transactionId, range + 1);
+            }
+        }
+
+        void replace(long transactionId, List<SaleLine> lines) {
+            Long range = rowsByTransaction.remove(transactionId);
+            if (range != null) {
+                int start = (int) (range >>> 32);
+                int count = (int) (range & 0xFFFFFFFFL);
+                dead.set(start, start + count);
+                deadCount += count;
+            }
+            if (!lines.isEmpty()) {
+                int start = size;
+                for (SaleLine line : lines) {
+                    addRow(line);
+                }
+                rowsByTransaction.put(transactionId, ((long) start << 32) | lines.size());
+            }
+        }
+
+        private int addRow(SaleLine line) {
+            if (size == day.length) {
+                int capacity = size * 2;
+                day = Arrays.copyOf(day, capacity);
+                product = Arrays.copyOf(product, capacity);
+                party = Arrays.copyOf(party, capacity);
+                amount = Arrays.copyOf(amount, capacity);
+                qty = Arrays.copyOf(qty, capacity);
+            }
+            int row = size++;
+            day[row] = (int) line.date().toEpochDay();
+            product[row] = productIds.computeIfAbsent(line.productId(), k -> {
+                productKeys.add(k);
+                return productKeys.size() - 1;
+            });
+            party[row] = line.partyId() == null ? 0 : partyIds.computeIfAbsent(line.partyId(), k -> {
+                partyKeys.add(k);
+                return partyKeys.size() - 1;
+            });
+            amount[row] = scaled(line.amount(), AMOUNT_SCALE);
+            qty[row] = scaled(line.qty(), QTY_SCALE);
+            return row;
+        }
+
+        // Rewrites the live rows densely once more than half the rows are dead
+        void compactIfSparse() {
+            if (deadCount < 1024 || deadCount * 2 < size) {
+                return;
+            }
+            int[] newDay = new int[Math.max(1024, size - deadCount)];
+            int[] newProduct = new int[newDay.length];
+            int[] newParty = new int[newDay.length];
+            long[] newAmount = new long[newDay.length];
+            long[] newQty = new long[newDay.length];
+
+            int next = 0;
+            for (Map.Entry<Long, Long> entry : rowsByTransaction.entrySet()) {
+                int start = (int) (entry.getValue() >>> 32);
+                int count = (int) (entry.getValue() & 0xFFFFFFFFL);
+                System.arraycopy(day, start, newDay, next, count);
+                System.arraycopy(product, start, newProduct, next, count);
+                System.arraycopy(party, start, newParty, next, count);
+                System.arraycopy(amount, start, newAmount, next, count);
+                System.arraycopy(qty, start, newQty, next, count);
+                entry.setValue(((long) next << 32) | count);
+                next += count;
+            }
+            day = newDay;
+            product = newProduct;
+            party = newParty;
+            amount = newAmount;
+            qty = newQty;
+            size = next;
+            dead.clear();
+            deadCount = 0;
+        }
+
+        // One pass; a row can count for both spans when they overlap
+        void scan(Totals totals, SalesDimension groupBy, int productFilter, int partyFilter,
+                int curStart, int curEnd, int prevStart, int prevEnd) {
+            for (int row = 0; row < size; row++) {
+                if ((productFilter >= 0 && product[row] != productFilter)
+                        || (partyFilter >= 0 && party[row] != partyFilter)
+                        || (deadCount > 0 && dead.get(row))) {
+                    continue;
+                }
+                int d = day[row];
+                if (d >= curStart && d <= curEnd) {
+                    int slot = slot(groupBy, row, d - curStart);
+                    totals.currentAmount[slot] += amount[row];
+                    totals.currentQty[slot] += qty[row];
+                }
+                if (d >= prevStart && d <= prevEnd) {
+                    int slot = slot(groupBy, row, d - prevStart);
+                    totals.previousAmount[slot] += amount[row];
+                    totals.previousQty[slot] += qty[row];
+                }
+            }
+        }
+
+        private int slot(SalesDimension groupBy, int row, int dayOffset) {
+            return switch (groupBy) {
+                case TOTAL -> 0;
+                case DAY -> dayOffset;
+                case PRODUCT -> product[row];
+                case PARTY -> party[row];
+            };
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.sbms.trading_service.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sbms.trading_service.repository.SalesRollupDailyRepository;
+import com.sbms.trading_service.repository.TransactionRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Recreates the sales rollup tables from transactions. Bill writes keep them current
+ * incrementally; this backfills an empty table on startup and periodically repairs any drift.
+ * Each business is rebuilt in its own short transaction, so a rebuild only ever holds up
+ * the bills of the one business it is working on.
+ */
+@Component
+@Slf4j
+public class SalesRollupRebuildJob implements ApplicationRunner {
+
+    private final SalesRollupDailyRepository salesRollupDailyRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public SalesRollupRebuildJob(SalesRollupDailyRepository salesRollupDailyRepository,
+            TransactionRepository transactionRepository, PlatformTransactionManager transactionManager) {
+        this.salesRollupDailyRepository = salesRollupDailyRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (salesRollupDailyRepository.count() == 0 && transactionRepository.count() > 0) {
+            log.info("Sales rollups are empty, building them from existing transactions");
+            rebuildAll();
+        }
+    }
+
+    @Scheduled(cron = "${sales.rollup.rebuild-cron:0 0 4 * * SUN}")
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        int businesses = rebuildAll();
+        log.info("Rebuilt sales rollups for {} businesses in {} ms", businesses, System.currentTimeMillis() - started);
+    }
+
+    // A business that fails keeps its incrementally maintained rows until the next run
+    private int rebuildAll() {
+        List<UUID> businessIds = salesRollupDailyRepository.findRollupBusinessIds();
+        int rebuilt = 0;
+        for (UUID businessId : businessIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> salesRollupDailyRepository.rebuildRollups(businessId));
+                rebuilt++;
+            } catch (RuntimeException e) {
+                log.warn("Could not rebuild sales rollups for business {}: {}", businessId, e.getMessage());
+            }
+        }
+        return rebuilt;
+    }
+}
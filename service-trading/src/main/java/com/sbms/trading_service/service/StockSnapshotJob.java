@@ -0,0 +1,39 @@
+package com.sbms.trading_service.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sbms.trading_service.repository.StockSnapshotRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodically snapshots per-product stock so point-in-time queries replay only a short tail
+ * of the ledger. The cutoff trails "now" by a few minutes so that bills still in flight,
+ * whose ledger rows are stamped before their transaction commits, have committed by the time
+ * the snapshot is taken; otherwise a movement stamped just before the cutoff but committed
+ * shortly after it would be missing from the snapshot.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockSnapshotJob {
+
+    private final StockSnapshotRepository stockSnapshotRepository;
+
+    @Value("${stock.snapshot.lag-minutes:10}")
+    private long lagMinutes;
+
+    @Scheduled(cron = "${stock.snapshot.cron:0 30 2 * * *}")
+    @Transactional
+    public void snapshot() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(lagMinutes);
+        int written = stockSnapshotRepository.snapshotChangedProducts(cutoff);
+        log.info("Wrote {} stock snapshots as of {}", written, cutoff);
+    }
+}
@@ -4,14 +4,18 @@ import java.util.List;
 import java.util.UUID;
 import java.time.LocalDate;
 
+import com.sbms.trading_service.dto.BulkTransactionResponse;
+import com.sbms.trading_service.dto.CursorPage;
 import com.sbms.trading_service.dto.TransactionRequest;
 import com.sbms.trading_service.dto.TransactionResponse;
 
 public interface TransactionService {
     Long createTransaction(TransactionRequest request, UUID businessId);
+    BulkTransactionResponse bulkCreateTransactions(List<TransactionRequest> requests, UUID businessId);
     Long updateTransaction(Long id, TransactionRequest request, UUID businessId);
     void deleteTransaction(Long id, UUID businessId);
     TransactionResponse getTransaction(Long id, UUID businessId);
     List<TransactionResponse> searchTransactions(UUID businessId, String query, String type, String dateRange, LocalDate customStart, LocalDate customEnd);
+    CursorPage<TransactionResponse> searchTransactionsPage(UUID businessId, String query, String type, String dateRange, LocalDate customStart, LocalDate customEnd, String cursor, int size);
     List<TransactionResponse> getTransactionsByParty(UUID businessId, Long partyId);
 }
@@ -1,64 +1,325 @@
 package com.sbms.trading_service.service;
 
+import java.util.Base64;
 import java.util.UUID;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
-
+import com.sbms.trading_service.dto.TransactionLineRow;
+import com.sbms.trading_service.dto.TransactionOfferRow;
 import com.sbms.trading_service.dto.TransactionRequest;
+import com.sbms.trading_service.entity.PartyBalanceOutbox;
 import com.sbms.trading_service.entity.Product;
+import com.sbms.trading_service.entity.StockMovement;
 import com.sbms.trading_service.entity.Transaction;
 import com.sbms.trading_service.entity.TransactionOffer;
 import com.sbms.trading_service.entity.TransactionProduct;
 import com.sbms.trading_service.enums.TransactionType;
 import com.sbms.trading_service.enums.PaymentMode;
+import com.sbms.trading_service.enums.StockMovementType;
+import com.sbms.trading_service.repository.PartyBalanceOutboxRepository;
 import com.sbms.trading_service.repository.ProductRepository;
+import com.sbms.trading_service.repository.SalesRollupDailyRepository;
+import com.sbms.trading_service.repository.SalesRollupStore;
 import com.sbms.trading_service.repository.TransactionRepository;
 
 import lombok.RequiredArgsConstructor;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
+import com.sbms.trading_service.dto.BulkTransactionResponse;
+import com.sbms.trading_service.dto.CursorPage;
 import com.sbms.trading_service.dto.TransactionResponse;
-import org.springframework.web.client.RestTemplate;
 import java.util.stream.Collectors;
-import org.springframework.beans.factory.annotation.Value;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class TransactionServiceImpl implements TransactionService {
 
+    private static final int MAX_BULK_TRANSACTIONS = 1000;
+    // Width of transactions.idempotency_key
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+    private static final int MAX_PAGE_SIZE = 500;
+    // Keeps IN (...) lists well under the JDBC bind-parameter limit on "All Time" searches
+    private static final int READ_CHUNK_SIZE = 1000;
+
     private final TransactionRepository transactionRepository;
     private final ProductRepository productRepository;
-    private final RestTemplate restTemplate;
+    private final PartyBalanceOutboxRepository partyBalanceOutboxRepository;
+    private final OfferRedemptionDispatcher offerRedemptionDispatcher;
+    private final SalesRollupDailyRepository salesRollupRepository;
+    private final DashboardCache dashboardCache;
+    private final DashboardEventStream dashboardEventStream;
+    private final SalesCube salesCube;
+    private final DemandForecaster demandForecaster;
+
+    @Override
+    @Transactional
+    public Long createTransaction(TransactionRequest request, UUID businessId) {
+        TransactionType type = TransactionType.valueOf(request.getType().toUpperCase());
+
+        // Stock changes for the whole bill, applied in one batch after the lines are built
+        Map<Long, BigDecimal> stockDeltas = new HashMap<>();
+        Map<Long, Product> products = hasLineItems(request, type)
+                ? loadProducts(request.getProducts(), businessId)
+                : Collections.emptyMap();
+
+        Transaction transaction = buildTransaction(request, type, businessId, products, stockDeltas);
+
+        Transaction saved = transactionRepository.save(transaction);
+        productRepository.applyStockMovements(businessId,
+                toMovements(stockDeltas, movementTypeFor(type), saved.getId()));
+        if (type == TransactionType.SALE) {
+            recordDemand(businessId, stockDeltas);
+        }
+        List<SalesRollupStore.Entry> rollupEntries = List.of(rollupEntry(saved, 1));
+        salesRollupRepository.applyRollupEntries(businessId, rollupEntries);
+        dashboardCache.invalidate(businessId);
+        dashboardEventStream.salesChanged(businessId, rollupEntries);
+        dashboardEventStream.stockChanged(businessId, stockDeltas);
+        salesCube.transactionChanged(businessId, saved);
+
+        // Queue Party Balance update (delivered to Service-Parties by the outbox relay)
+        if (request.getPartyId() != null) {
+            updatePartyBalance(businessId, request.getPartyId(), saved.getId(),
+                    calculateBalanceImpact(type, saved.getTotalAmount(), saved.getPaidAmount()));
+        }
 
-    @Value("${service.parties.url}")
-    private String partiesServiceUrl;
+        // Notify Smart Ops Service (After save to get Transaction ID; sent asynchronously after commit)
+        if (request.getAppliedOffers() != null) {
+            for (TransactionRequest.TransactionOfferDto offerDto : request.getAppliedOffers()) {
+                offerRedemptionDispatcher.recordUsage(businessId, offerDto.getOfferId(), saved.getId(),
+                        saved.getPartyId(), saved.getPartyName(), offerDto.getDiscountAmount());
+            }
+        }
 
-    @Value("${service.smartops.url}")
-    private String smartOpsServiceUrl;
+        return saved.getId();
+    }
 
     @Override
     @Transactional
-    public Long createTransaction(TransactionRequest request, UUID businessId) {
+    public BulkTransactionResponse bulkCreateTransactions(List<TransactionRequest> requests, UUID businessId) {
+        if (requests == null || requests.isEmpty()) {
+            throw new RuntimeException("No transactions to import");
+        }
+        if (requests.size() > MAX_BULK_TRANSACTIONS) {
+            throw new RuntimeException("Bulk import accepts at most " + MAX_BULK_TRANSACTIONS + " transactions");
+        }
+
+        // 1. Keys that were already imported by an earlier replay
+        Set<String> keys = requests.stream()
+                .map(TransactionRequest::getIdempotencyKey)
+                .filter(k -> k != null && !k.isBlank())
+                .collect(Collectors.toSet());
+        Map<String, Long> knownIds = new HashMap<>();
+        if (!keys.isEmpty()) {
+            for (Object[] row : transactionRepository.findIdsByIdempotencyKeys(businessId, keys)) {
+                knownIds.put((String) row[0], (Long) row[1]);
+            }
+        }
+
+        // 2. One product lookup for every line in the batch
+        Set<Long> productIds = requests.stream()
+                .filter(r -> r.getProducts() != null)
+                .flatMap(r -> r.getProducts().stream())
+                .map(TransactionRequest.TransactionProductDto::getProductId)
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = productIds.isEmpty()
+                ? Collections.emptyMap()
+                : productRepository.findAllForBusinessByIdIn(businessId, productIds).stream()
+                        .collect(Collectors.toMap(Product::getId, p -> p));
+
+        // 3. Build every new bill, netting stock and balance changes across the whole batch
+        BulkTransactionResponse.ItemResult[] results = new BulkTransactionResponse.ItemResult[requests.size()];
+        List<Transaction> toInsert = new ArrayList<>();
+        List<Integer> insertIndexes = new ArrayList<>();
+        List<StockMovement> stockMovements = new ArrayList<>();
+        List<SalesRollupStore.Entry> rollupEntries = new ArrayList<>();
+        Map<Long, BigDecimal> saleStock = new HashMap<>();
+        List<Map<Long, BigDecimal>> insertStock = new ArrayList<>();
+        List<BigDecimal> insertBalance = new ArrayList<>();
+        Map<Long, BigDecimal> balanceDeltas = new HashMap<>();
+        Set<String> seenKeys = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            TransactionRequest request = requests.get(i);
+            String key = request.getIdempotencyKey();
+
+            if (key == null || key.isBlank()) {
+                results[i] = bulkResult(i, key, "FAILED", null, "idempotencyKey is required");
+                continue;
+            }
+            if (key.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+                results[i] = bulkResult(i, key, "FAILED", null,
+                        "idempotencyKey must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+                continue;
+            }
+            if (knownIds.containsKey(key) || !seenKeys.add(key)) {
+                results[i] = bulkResult(i, key, "DUPLICATE", knownIds.get(key), null);
+                continue;
+            }
+
+            try {
+                validateForBulk(request);
+                TransactionType type = TransactionType.valueOf(request.getType().toUpperCase());
+
+                Map<Long, BigDecimal> itemStock = new HashMap<>();
+                Transaction transaction = buildTransaction(request, type, businessId, products, itemStock);
+                transaction.setIdempotencyKey(key);
+                BigDecimal balance = request.getPartyId() != null
+                        ? calculateBalanceImpact(type, request.getTotalAmount(), request.getPaidAmount())
+                        : BigDecimal.ZERO;
+
+                // Only kept once the whole item is valid
+                insertStock.add(itemStock);
+                insertBalance.add(balance);
+                insertIndexes.add(i);
+                toInsert.add(transaction);
+            } catch (RuntimeException e) {
+                results[i] = bulkResult(i, key, "FAILED", null, e.getMessage());
+            }
+        }
+
+        // 4. Persist in JDBC batches. A concurrent replay may have stored some keys since step 1; the insert
+        // skips those, and they are reported as duplicates of the stored bill
+        List<Transaction> inserted = transactionRepository.insertAll(toInsert);
+        if (inserted.size() < toInsert.size()) {
+            Set<String> skipped = toInsert.stream()
+                    .filter(t -> t.getId() == null)
+                    .map(Transaction::getIdempotencyKey)
+                    .collect(Collectors.toSet());
+            for (Object[] row : transactionRepository.findIdsByIdempotencyKeys(businessId, skipped)) {
+                knownIds.put((String) row[0], (Long) row[1]);
+            }
+        }
+
+        // 5. Apply the netted side effects of the inserted bills once
+        for (int n = 0; n < toInsert.size(); n++) {
+            Transaction transaction = toInsert.get(n);
+            if (transaction.getId() == null) {
+                continue;
+            }
+            stockMovements.addAll(toMovements(insertStock.get(n),
+                    movementTypeFor(transaction.getType()), transaction.getId()));
+            rollupEntries.add(rollupEntry(transaction, 1));
+            if (transaction.getType() == TransactionType.SALE) {
+                insertStock.get(n).forEach((productId, delta) -> saleStock.merge(productId, delta, BigDecimal::add));
+            }
+            if (insertBalance.get(n).compareTo(BigDecimal.ZERO) != 0) {
+                balanceDeltas.merge(transaction.getPartyId(), insertBalance.get(n), BigDecimal::add);
+            }
+        }
+        productRepository.applyStockMovements(businessId, stockMovements);
+        recordDemand(businessId, saleStock);
+        salesRollupRepository.applyRollupEntries(businessId, rollupEntries);
+        if (!inserted.isEmpty()) {
+            dashboardCache.invalidate(businessId);
+            Map<Long, BigDecimal> netStock = new HashMap<>();
+            stockMovements.forEach(m -> netStock.merge(m.getProductId(), m.getQuantity(), BigDecimal::add));
+            dashboardEventStream.salesChanged(businessId, rollupEntries);
+            dashboardEventStream.stockChanged(businessId, netStock);
+            inserted.forEach(transaction -> salesCube.transactionChanged(businessId, transaction));
+        }
+        balanceDeltas.forEach((partyId, amount) -> updatePartyBalance(businessId, partyId, null, amount));
+
+        Map<String, Long> createdIds = new HashMap<>();
+        for (int n = 0; n < toInsert.size(); n++) {
+            Transaction transaction = toInsert.get(n);
+            int index = insertIndexes.get(n);
+            if (transaction.getId() == null) {
+                String key = transaction.getIdempotencyKey();
+                results[index] = bulkResult(index, key, "DUPLICATE", knownIds.get(key), null);
+                continue;
+            }
+            createdIds.put(transaction.getIdempotencyKey(), transaction.getId());
+            results[index] = bulkResult(index, transaction.getIdempotencyKey(), "CREATED", transaction.getId(), null);
+
+            for (TransactionOffer offer : transaction.getOffers()) {
+                offerRedemptionDispatcher.recordUsage(businessId, offer.getOfferId(), transaction.getId(),
+                        transaction.getPartyId(), transaction.getPartyName(), offer.getDiscountAmount());
+            }
+        }
+
+        // Keys repeated inside this batch point at the bill stored for their first occurrence
+        int created = 0, duplicates = 0, failed = 0;
+        for (BulkTransactionResponse.ItemResult result : results) {
+            switch (result.getStatus()) {
+                case "CREATED" -> created++;
+                case "DUPLICATE" -> {
+                    duplicates++;
+                    if (result.getTransactionId() == null) {
+                        Long id = createdIds.get(result.getIdempotencyKey());
+                        result.setTransactionId(id != null ? id : knownIds.get(result.getIdempotencyKey()));
+                    }
+                }
+                default -> failed++;
+            }
+        }
+
+        return BulkTransactionResponse.builder()
+                .created(created)
+                .duplicates(duplicates)
+                .failed(failed)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    // Catch what the database would reject, so one bad bill doesn't fail the whole batch
+    private void validateForBulk(TransactionRequest request) {
+        if (request.getType() == null || request.getDate() == null || request.getTotalAmount() == null) {
+            throw new RuntimeException("type, date and totalAmount are required");
+        }
+        if (request.getProducts() != null) {
+            for (TransactionRequest.TransactionProductDto item : request.getProducts()) {
+                if (item.getProductId() == null || item.getQty() == null || item.getPrice() == null
+                        || item.getAmount() == null) {
+                    throw new RuntimeException("productId, qty, price and amount are required on every line");
+                }
+            }
+        }
+    }
+
+    private BulkTransactionResponse.ItemResult bulkResult(int index, String key, String status, Long id,
+            String error) {
+        return BulkTransactionResponse.ItemResult.builder()
+                .index(index)
+                .idempotencyKey(key)
+                .status(status)
+                .transactionId(id)
+                .error(error)
+                .build();
+    }
+
+    // Maps a request onto a new, unsaved bill and collects its stock changes
+    private Transaction buildTransaction(TransactionRequest request, TransactionType type, UUID businessId,
+            Map<Long, Product> products, Map<Long, BigDecimal> stockDeltas) {
         Transaction transaction = new Transaction();
         transaction.setBusinessId(businessId);
         transaction.setPartyId(request.getPartyId());
         transaction.setPartyName(request.getPartyName());
         transaction.setDate(request.getDate());
-
-        TransactionType type = TransactionType.valueOf(request.getType().toUpperCase());
         transaction.setType(type);
 
         transaction.setSubTotal(request.getSubTotal());
@@ -73,80 +334,18 @@ public class TransactionServiceImpl implements TransactionService {
         transaction.setReferenceNumber(request.getReferenceNumber());
         transaction.setNotes(request.getNotes());
 
-        // Update Party Balance via Service-Parties API
-        if (request.getPartyId() != null) {
-            try {
-                BigDecimal adjustment = BigDecimal.ZERO;
-
-                if (TransactionType.SALE.equals(type)) {
-                    // Calculate Amount to adjust for SALE
-                    BigDecimal remaining = transaction.getTotalAmount().subtract(transaction.getPaidAmount());
-                    adjustment = remaining; // Positive (Receivable Increases)
-                } else if (TransactionType.PURCHASE.equals(type)) {
-                    // Calculate Amount to adjust for PURCHASE
-                    BigDecimal remaining = transaction.getTotalAmount().subtract(transaction.getPaidAmount());
-                    adjustment = remaining.negate(); // Negative (Payable Increases / Receivable Decreases)
-                } else if (TransactionType.RECEIPT.equals(type)) {
-                    // RECEIPT: Customer pays you, reduces what they owe
-                    adjustment = transaction.getPaidAmount().negate(); // Negative reduces receivable
-                } else if (TransactionType.PAYMENT.equals(type)) {
-                    // PAYMENT: You pay supplier, reduces what you owe
-                    adjustment = transaction.getPaidAmount(); // Positive reduces payable (increases balance towards
-                                                              // zero)
-                }
-
-                if (adjustment.compareTo(BigDecimal.ZERO) != 0) {
-                    String url = partiesServiceUrl + "/api/Parties/" + request.getPartyId() + "/balance";
-
-                    // Create Body
-                    Map<String, BigDecimal> body = Collections.singletonMap("amount", adjustment);
-
-                    // Get Token
-                    String token = null;
-                    // Get Token from Request Header directly
-                    ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder
-                            .getRequestAttributes();
-
-                    if (attributes != null) {
-                        String authHeader = attributes.getRequest().getHeader("Authorization");
-                        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                            token = authHeader.substring(7);
-                        }
-                    }
-
-                    HttpHeaders headers = new HttpHeaders();
-                    if (token != null)
-                        headers.setBearerAuth(token);
-
-                    HttpEntity<Map<String, BigDecimal>> entity = new HttpEntity<>(body, headers);
-
-                    restTemplate.postForEntity(url, entity, Void.class);
-                }
-
-            } catch (Exception e) {
-                // Log error but assume transaction success? Or Fail?
-                // For now, let's just print stack trace. Ideally implementation should be
-                // robust (Saga pattern or retry)
-                e.printStackTrace();
-                throw new RuntimeException("Failed to update party balance: " + e.getMessage());
-            }
-        }
-
         // Process Products (only for SALE/PURCHASE, not for RECEIPT/PAYMENT)
-        if (request.getProducts() != null
-                && (TransactionType.SALE.equals(type) || TransactionType.PURCHASE.equals(type))) {
+        if (hasLineItems(request, type)) {
             for (TransactionRequest.TransactionProductDto item : request.getProducts()) {
-                Product product = productRepository.findById(item.getProductId())
-                        .orElseThrow(() -> new RuntimeException("Product not found: " + item.getProductId()));
-
-                // Verify Product belongs to business?
-                if (!product.getBusinessId().equals(businessId)) {
-                    throw new RuntimeException("Product does not belong to this business");
+                Product product = products.get(item.getProductId());
+                if (product == null) {
+                    throw new RuntimeException("Product not found: " + item.getProductId());
                 }
 
                 TransactionProduct tp = new TransactionProduct();
                 tp.setBusinessId(businessId);
                 tp.setProduct(product);
+                tp.setType(type);
                 tp.setQty(item.getQty());
                 tp.setPrice(item.getPrice());
                 tp.setAmount(item.getAmount());
@@ -155,7 +354,7 @@ public class TransactionServiceImpl implements TransactionService {
                 transaction.addProduct(tp);
 
                 // Update Inventory (Current Stock)
-                adjustStock(product, item.getQty(), type, false);
+                addStockDelta(stockDeltas, product.getId(), item.getQty(), type, false);
             }
         }
 
@@ -172,65 +371,52 @@ public class TransactionServiceImpl implements TransactionService {
             }
         }
 
-        Transaction saved = transactionRepository.save(transaction);
-
-        // Notify Smart Ops Service (After save to get Transaction ID)
-        if (request.getAppliedOffers() != null) {
-            for (TransactionRequest.TransactionOfferDto offerDto : request.getAppliedOffers()) {
-                recordOfferUsage(offerDto.getOfferId(), saved.getId().toString(), saved.getPartyId(),
-                        saved.getPartyName(), offerDto.getDiscountAmount());
-            }
-        }
+        return transaction;
+    }
 
-        return saved.getId();
+    private boolean hasLineItems(TransactionRequest request, TransactionType type) {
+        return request.getProducts() != null
+                && (TransactionType.SALE.equals(type) || TransactionType.PURCHASE.equals(type));
     }
 
-    private void recordOfferUsage(String offerId, String transactionsId, Long partyId, String partyName,
-            BigDecimal discountAmount) {
-        try {
-            String url = smartOpsServiceUrl + "/api/smart-ops/offers/redemption";
-
-            // Body
-            Map<String, Object> body = Map.of(
-                    "offerId", offerId,
-                    "transactionId", transactionsId,
-                    "customerId", partyId != null ? partyId.toString() : "walk-in",
-                    "partyName", partyName != null ? partyName : "Walk-in",
-                    "discountAmount", discountAmount);
-
-            // Get Token
-            String token = null;
-            ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder
-                    .getRequestAttributes();
-
-            if (attributes != null) {
-                String authHeader = attributes.getRequest().getHeader("Authorization");
-                if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                    token = authHeader.substring(7);
-                }
-            }
+    // Effect of a bill on the party balance (positive = party owes us more)
+    private BigDecimal calculateBalanceImpact(TransactionType type, BigDecimal totalAmount, BigDecimal paidAmount) {
+        BigDecimal total = totalAmount != null ? totalAmount : BigDecimal.ZERO;
+        BigDecimal paid = paidAmount != null ? paidAmount : BigDecimal.ZERO;
 
-            HttpHeaders headers = new HttpHeaders();
-            if (token != null)
-                headers.setBearerAuth(token);
+        if (TransactionType.SALE.equals(type)) {
+            return total.subtract(paid); // Positive (Receivable Increases)
+        } else if (TransactionType.PURCHASE.equals(type)) {
+            return total.subtract(paid).negate(); // Negative (Payable Increases / Receivable Decreases)
+        } else if (TransactionType.RECEIPT.equals(type)) {
+            return paid.negate(); // RECEIPT: Customer pays you, reduces what they owe
+        } else if (TransactionType.PAYMENT.equals(type)) {
+            return paid; // PAYMENT: You pay supplier, reduces what you owe
+        }
+        return BigDecimal.ZERO;
+    }
 
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
+    // Fetch all products of a bill in one query and verify they belong to the business
+    private Map<Long, Product> loadProducts(List<TransactionRequest.TransactionProductDto> items, UUID businessId) {
+        Set<Long> ids = items.stream()
+                .map(TransactionRequest.TransactionProductDto::getProductId)
+                .collect(Collectors.toSet());
 
-            // Async or Fire-and-forget? RestTemplate is sync.
-            // We don't want to fail transaction if this fails?
-            // Requirement says "make it work". Let's do sync for now.
-            restTemplate.postForEntity(url, entity, Void.class);
+        Map<Long, Product> products = productRepository.findAllForBusinessByIdIn(businessId, ids).stream()
+                .collect(Collectors.toMap(Product::getId, p -> p));
 
-        } catch (Exception e) {
-            System.err.println("Failed to record offer usage: " + e.getMessage());
-            // Don't throw exception to avoid rolling back transaction?
-            // Or do we want strict consistency? Usually marketing stats are non-critical.
+        for (Long id : ids) {
+            if (!products.containsKey(id)) {
+                // Either missing or owned by another business
+                throw new RuntimeException("Product not found: " + id);
+            }
         }
+        return products;
     }
 
-    // Helper to adjust stock
-    // Helper to adjust stock
-    private void adjustStock(Product product, BigDecimal qty, TransactionType type, boolean isReversal) {
+    // Helper to accumulate a stock change for the bill
+    private void addStockDelta(Map<Long, BigDecimal> stockDeltas, Long productId, BigDecimal qty,
+            TransactionType type, boolean isReversal) {
         if (qty == null || qty.compareTo(BigDecimal.ZERO) == 0)
             return;
 
@@ -251,10 +437,35 @@ public class TransactionServiceImpl implements TransactionService {
             adjustment = adjustment.negate();
         }
 
-        // Apply
-        BigDecimal newStock = product.getCurrentStock().add(adjustment);
-        product.setCurrentStock(newStock);
-        productRepository.save(product);
+        stockDeltas.merge(productId, adjustment, BigDecimal::add);
+    }
+
+    // One ledger entry per product, carrying the bill's net change
+    private List<StockMovement> toMovements(Map<Long, BigDecimal> stockDeltas, StockMovementType type,
+            Long transactionId) {
+        List<StockMovement> movements = new ArrayList<>(stockDeltas.size());
+        stockDeltas.forEach((productId, delta) -> movements.add(new StockMovement(productId, transactionId, type, delta)));
+        return movements;
+    }
+
+    // Sales take stock out, so the demand is the negated stock delta. Runs after the stock update,
+    // whose product row locks keep concurrent forecast updates for a product in order.
+    private void recordDemand(UUID businessId, Map<Long, BigDecimal> stockDeltas) {
+        Map<Long, BigDecimal> sold = new HashMap<>();
+        stockDeltas.forEach((productId, delta) -> sold.put(productId, delta.negate()));
+        demandForecaster.recordDemand(businessId, sold);
+    }
+
+    // The bill's contribution to the sales rollups; sign -1 takes it back out
+    private SalesRollupStore.Entry rollupEntry(Transaction t, int sign) {
+        BigDecimal amount = t.getTotalAmount() != null ? t.getTotalAmount() : BigDecimal.ZERO;
+        int hour = t.getCreatedAt() != null ? t.getCreatedAt().getHour() : LocalDateTime.now().getHour();
+        return new SalesRollupStore.Entry(t.getDate(), hour, t.getType(), sign < 0 ? amount.negate() : amount, sign);
+    }
+
+    // Only SALE and PURCHASE bills carry lines, so only they move stock
+    private static StockMovementType movementTypeFor(TransactionType type) {
+        return TransactionType.PURCHASE.equals(type) ? StockMovementType.PURCHASE : StockMovementType.SALE;
     }
 
     @Override
@@ -266,12 +477,64 @@ public class TransactionServiceImpl implements TransactionService {
             throw new RuntimeException("Unauthorized access to transaction");
         }
 
-        return mapToResponse(transaction);
+        return mapToResponses(List.of(transaction)).get(0);
     }
 
     @Override
     public List<TransactionResponse> searchTransactions(UUID businessId, String query, String type, String dateRange,
             LocalDate customStart, LocalDate customEnd) {
+        DateRange range = resolveDateRange(dateRange, customStart, customEnd);
+
+        TransactionType tType = (type == null || "All".equalsIgnoreCase(type))
+                ? null
+                : TransactionType.valueOf(type.toUpperCase());
+
+        List<Transaction> transactions = transactionRepository.searchByPartyName(businessId, toLikePattern(query),
+                tType, range.start(), range.end());
+
+        return mapToResponses(transactions);
+    }
+
+    @Override
+    public CursorPage<TransactionResponse> searchTransactionsPage(UUID businessId, String query, String type,
+            String dateRange, LocalDate customStart, LocalDate customEnd, String cursor, int size) {
+        DateRange range = resolveDateRange(dateRange, customStart, customEnd);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        TransactionType tType = (type == null || "All".equalsIgnoreCase(type))
+                ? null
+                : TransactionType.valueOf(type.toUpperCase());
+
+        // No cursor: start just after the end of the range
+        LocalDate cursorDate = range.end().plusDays(1);
+        Long cursorId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor decoded = decodeCursor(cursor);
+            cursorDate = decoded.date();
+            cursorId = decoded.id();
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<Transaction> rows = transactionRepository.findPageBefore(businessId, toLikePattern(query), tType,
+                range.start(), range.end(), cursorDate, cursorId, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Transaction> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Transaction last = page.get(page.size() - 1);
+            nextCursor = encodeCursor(last.getDate(), last.getId());
+        }
+
+        return CursorPage.<TransactionResponse>builder()
+                .items(mapToResponses(page))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private DateRange resolveDateRange(String dateRange, LocalDate customStart, LocalDate customEnd) {
         // Calculate Date Range
         LocalDate startDate = null;
         LocalDate endDate = LocalDate.now();
@@ -304,32 +567,104 @@ public class TransactionServiceImpl implements TransactionService {
             }
         }
 
-        // Ensure query is safe string for "Before" logic
-        String safeQuery = (query == null) ? "" : query.trim();
+        if (startDate == null) {
+            startDate = LocalDate.of(1970, 1, 1);
+        }
+        return new DateRange(startDate, endDate);
+    }
 
-        List<Transaction> transactions;
-        if ("All".equalsIgnoreCase(type)) {
-            transactions = transactionRepository
-                    .findByBusinessIdAndPartyNameContainingIgnoreCaseAndDateBetweenOrderByDateDesc(
-                            businessId, safeQuery, startDate, endDate);
-        } else {
-            TransactionType tType = TransactionType.valueOf(type.toUpperCase());
-            transactions = transactionRepository
-                    .findByBusinessIdAndPartyNameContainingIgnoreCaseAndTypeAndDateBetweenOrderByDateDesc(
-                            businessId, safeQuery, tType, startDate, endDate);
+    // Case-insensitive "contains" pattern with LIKE wildcards in the user input escaped;
+    // null for an empty query so the name filter (and the trigram index) is skipped entirely
+    private String toLikePattern(String query) {
+        if (query == null || query.isBlank()) {
+            return null;
         }
+        String safeQuery = query.trim().toLowerCase();
+        String escaped = safeQuery.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
 
-        return transactions.stream().map(this::mapToResponse).collect(Collectors.toList());
+    // Opaque cursor: base64url of "date|id" of the last row on the page
+    private String encodeCursor(LocalDate date, Long id) {
+        String raw = date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // NumberFormatException is an IllegalArgumentException, so every malformed part reads as an invalid cursor
+    private Cursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            return new Cursor(LocalDate.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    private record DateRange(LocalDate start, LocalDate end) {
+    }
+
+    private record Cursor(LocalDate date, Long id) {
     }
 
     @Override
     public List<TransactionResponse> getTransactionsByParty(UUID businessId, Long partyId) {
         List<Transaction> transactions = transactionRepository.findByBusinessIdAndPartyIdOrderByDateDesc(businessId,
                 partyId);
-        return transactions.stream().map(this::mapToResponse).collect(Collectors.toList());
+        return mapToResponses(transactions);
+    }
+
+    /**
+     * Maps a list of bills with a fixed number of queries: lines and offers for every bill are
+     * loaded as flat projections in one query each (per chunk) instead of walking each bill's
+     * lazy collections and eager Product graph.
+     */
+    private List<TransactionResponse> mapToResponses(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, List<TransactionResponse.DetailDto>> linesByTransaction = new HashMap<>();
+        Map<Long, List<TransactionResponse.OfferDto>> offersByTransaction = new HashMap<>();
+
+        List<Long> ids = transactions.stream().map(Transaction::getId).collect(Collectors.toList());
+        for (int from = 0; from < ids.size(); from += READ_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + READ_CHUNK_SIZE, ids.size()));
+
+            for (TransactionLineRow row : transactionRepository.findLineRowsByTransactionIds(chunk)) {
+                linesByTransaction.computeIfAbsent(row.getTransactionId(), k -> new ArrayList<>())
+                        .add(TransactionResponse.DetailDto.builder()
+                                .productId(row.getProductId())
+                                .name(row.getProductName())
+                                .isFree(row.isFree())
+                                .qty(row.getQty())
+                                .rate(row.getPrice())
+                                .total(row.getAmount())
+                                .build());
+            }
+
+            for (TransactionOfferRow row : transactionRepository.findOfferRowsByTransactionIds(chunk)) {
+                offersByTransaction.computeIfAbsent(row.getTransactionId(), k -> new ArrayList<>())
+                        .add(TransactionResponse.OfferDto.builder()
+                                .offerId(row.getOfferId())
+                                .offerName(row.getOfferName())
+                                .discountAmount(row.getDiscountAmount())
+                                .build());
+            }
+        }
+
+        return transactions.stream()
+                .map(t -> mapToResponse(t,
+                        linesByTransaction.getOrDefault(t.getId(), Collections.emptyList()),
+                        offersByTransaction.getOrDefault(t.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
     }
 
-    private TransactionResponse mapToResponse(Transaction t) {
+    private TransactionResponse mapToResponse(Transaction t, List<TransactionResponse.DetailDto> details,
+            List<TransactionResponse.OfferDto> appliedOffers) {
         String status = "Unpaid";
         if (t.getPaidAmount() != null && t.getTotalAmount() != null) {
             if (t.getPaidAmount().compareTo(t.getTotalAmount()) >= 0)
@@ -364,25 +699,20 @@ public class TransactionServiceImpl implements TransactionService {
                 .paymentMode(paymentModeStr)
                 .subTotal(t.getSubTotal())
                 .discount(t.getDiscount())
-                .products(t.getProducts().size())
+                .products(details.size())
                 .referenceNumber(t.getReferenceNumber())
                 .notes(t.getNotes())
-                .details(t.getProducts().stream().map(p -> TransactionResponse.DetailDto.builder()
-                        .productId(p.getProduct().getId())
-                        .name(p.getProduct().getName())
-                        .isFree(p.isFree())
-                        .qty(p.getQty())
-                        .rate(p.getPrice())
-                        .total(p.getAmount())
-                        .build()).collect(Collectors.toList()))
-                .appliedOffers(t.getOffers().stream().map(o -> TransactionResponse.OfferDto.builder()
-                        .offerId(o.getOfferId())
-                        .offerName(o.getOfferName())
-                        .discountAmount(o.getDiscountAmount())
-                        .build()).collect(Collectors.toList()))
+                .details(details)
+                .appliedOffers(appliedOffers)
                 .build();
     }
 
+    /**
+     * Edits a bill by diffing it against the stored one: balances move by one net delta per
+     * affected party, stock moves only for lines whose quantity changed, line and offer rows
+     * are updated in place, and unchanged offers are not re-sent to smart-ops. An edit that
+     * only touches the header (e.g. notes) costs a single row update.
+     */
     @Override
     @Transactional
     public Long updateTransaction(Long id, TransactionRequest request, UUID businessId) {
@@ -393,40 +723,22 @@ public class TransactionServiceImpl implements TransactionService {
             throw new RuntimeException("Unauthorized access to transaction");
         }
 
-        // 1. Revert Old Balance Impact
-        if (existing.getPartyId() != null) {
-            BigDecimal oldAdjustment = BigDecimal.ZERO;
-
-            TransactionType oldType = existing.getType();
-            if (TransactionType.SALE.equals(oldType)) {
-                BigDecimal oldRemaining = existing.getTotalAmount().subtract(existing.getPaidAmount());
-                oldAdjustment = oldRemaining;
-            } else if (TransactionType.PURCHASE.equals(oldType)) {
-                BigDecimal oldRemaining = existing.getTotalAmount().subtract(existing.getPaidAmount());
-                oldAdjustment = oldRemaining.negate();
-            } else if (TransactionType.RECEIPT.equals(oldType)) {
-                oldAdjustment = existing.getPaidAmount().negate();
-            } else if (TransactionType.PAYMENT.equals(oldType)) {
-                oldAdjustment = existing.getPaidAmount();
-            }
-            // Reverse it (negate)
-            updatePartyBalance(existing.getPartyId(), oldAdjustment.negate());
-        }
+        TransactionType oldType = existing.getType();
+        TransactionType newType = TransactionType.valueOf(request.getType().toUpperCase());
+        Long oldPartyId = existing.getPartyId();
+        String oldPartyName = existing.getPartyName();
+        BigDecimal oldImpact = calculateBalanceImpact(oldType, existing.getTotalAmount(), existing.getPaidAmount());
+        SalesRollupStore.Entry oldRollup = rollupEntry(existing, -1);
 
-        // 2. Update Fields
+        // 1. Header fields (dirty checking only writes the row if something actually changed)
         existing.setPartyId(request.getPartyId());
         existing.setPartyName(request.getPartyName());
         existing.setDate(request.getDate());
-
-        TransactionType newType = TransactionType.valueOf(request.getType().toUpperCase());
         existing.setType(newType);
-
         existing.setSubTotal(request.getSubTotal());
         existing.setDiscount(request.getDiscount());
         existing.setTotalAmount(request.getTotalAmount());
         existing.setPaidAmount(request.getPaidAmount());
-
-        // Update settlement fields
         if (request.getPaymentMode() != null) {
             existing.setPaymentMode(PaymentMode.valueOf(request.getPaymentMode().toUpperCase().replace(" ", "_")));
         } else {
@@ -435,83 +747,155 @@ public class TransactionServiceImpl implements TransactionService {
         existing.setReferenceNumber(request.getReferenceNumber());
         existing.setNotes(request.getNotes());
 
-        // 3. Clear and Re-add Products (only for SALE/PURCHASE)
-        // A. Revert Old Stock
-        TransactionType existingType = existing.getType();
+        boolean itemized = TransactionType.SALE.equals(newType) || TransactionType.PURCHASE.equals(newType);
+
+        // 2. Lines and stock
+        List<TransactionRequest.TransactionProductDto> newLines = (itemized && request.getProducts() != null)
+                ? request.getProducts()
+                : Collections.emptyList();
+        reconcileLines(existing, newLines, oldType, newType, businessId);
+
+        // 3. Offers
+        List<TransactionRequest.TransactionOfferDto> newOffers = (itemized && request.getAppliedOffers() != null)
+                ? request.getAppliedOffers()
+                : Collections.emptyList();
+        boolean partyChanged = !Objects.equals(oldPartyId, existing.getPartyId())
+                || !Objects.equals(oldPartyName, existing.getPartyName());
+        reconcileOffers(existing, newOffers, partyChanged, businessId);
+
+        // 4. One net balance delta per affected party
+        Map<Long, BigDecimal> balanceDeltas = new LinkedHashMap<>();
+        if (oldPartyId != null) {
+            balanceDeltas.merge(oldPartyId, oldImpact.negate(), BigDecimal::add);
+        }
+        if (existing.getPartyId() != null) {
+            BigDecimal newImpact = calculateBalanceImpact(newType, existing.getTotalAmount(), existing.getPaidAmount());
+            balanceDeltas.merge(existing.getPartyId(), newImpact, BigDecimal::add);
+        }
+        balanceDeltas.forEach((partyId, delta) -> updatePartyBalance(businessId, partyId, existing.getId(), delta));
+
+        // 5. Move the bill between rollup buckets (nets to nothing when date, type and total are unchanged)
+        List<SalesRollupStore.Entry> rollupEntries = List.of(oldRollup, rollupEntry(existing, 1));
+        salesRollupRepository.applyRollupEntries(businessId, rollupEntries);
+        dashboardCache.invalidate(businessId);
+        dashboardEventStream.salesChanged(businessId, rollupEntries);
+
+        transactionRepository.save(existing);
+        salesCube.transactionChanged(businessId, existing);
+        return existing.getId();
+    }
+
+    /**
+     * Pairs stored lines with requested lines by (product, free) in order. Paired lines are
+     * updated in place, leftovers are inserted or removed, and stock deltas are netted per
+     * product so untouched lines produce no stock update.
+     */
+    private void reconcileLines(Transaction existing, List<TransactionRequest.TransactionProductDto> newLines,
+            TransactionType oldType, TransactionType newType, UUID businessId) {
+        Map<Long, BigDecimal> stockDeltas = new HashMap<>();
+
+        Map<String, Deque<TransactionProduct>> oldByKey = new HashMap<>();
         for (TransactionProduct oldItem : existing.getProducts()) {
-            adjustStock(oldItem.getProduct(), oldItem.getQty(), existingType, true); // Reversal = true
+            oldByKey.computeIfAbsent(lineKey(oldItem.getProduct().getId(), oldItem.isFree()), k -> new ArrayDeque<>())
+                    .addLast(oldItem);
+            addStockDelta(stockDeltas, oldItem.getProduct().getId(), oldItem.getQty(), oldType, true);
         }
 
-        existing.getProducts().clear();
-        if (request.getProducts() != null
-                && (TransactionType.SALE.equals(newType) || TransactionType.PURCHASE.equals(newType))) {
-            for (TransactionRequest.TransactionProductDto item : request.getProducts()) {
-                Product product = productRepository.findById(item.getProductId())
-                        .orElseThrow(() -> new RuntimeException("Product not found: " + item.getProductId()));
+        List<TransactionRequest.TransactionProductDto> added = new ArrayList<>();
+        for (TransactionRequest.TransactionProductDto item : newLines) {
+            Deque<TransactionProduct> candidates = oldByKey.get(lineKey(item.getProductId(), item.isFree()));
+            TransactionProduct match = candidates != null ? candidates.pollFirst() : null;
+            if (match == null) {
+                added.add(item);
+            } else {
+                if (!sameAmount(match.getQty(), item.getQty()))
+                    match.setQty(item.getQty());
+                if (!sameAmount(match.getPrice(), item.getPrice()))
+                    match.setPrice(item.getPrice());
+                if (!sameAmount(match.getAmount(), item.getAmount()))
+                    match.setAmount(item.getAmount());
+                if (match.getType() != newType)
+                    match.setType(newType);
+            }
+            addStockDelta(stockDeltas, item.getProductId(), item.getQty(), newType, false);
+        }
+
+        // Whatever was not paired has been removed from the bill (orphanRemoval deletes the rows)
+        Set<TransactionProduct> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        oldByKey.values().forEach(removed::addAll);
+        existing.getProducts().removeIf(removed::contains);
 
+        if (!added.isEmpty()) {
+            Map<Long, Product> products = loadProducts(added, businessId);
+            for (TransactionRequest.TransactionProductDto item : added) {
                 TransactionProduct tp = new TransactionProduct();
                 tp.setBusinessId(businessId);
-                tp.setTransaction(existing); // Important linkage
-                tp.setProduct(product);
+                tp.setTransaction(existing);
+                tp.setProduct(products.get(item.getProductId()));
+                tp.setType(newType);
                 tp.setQty(item.getQty());
                 tp.setPrice(item.getPrice());
                 tp.setAmount(item.getAmount());
                 tp.setFree(item.isFree());
                 existing.getProducts().add(tp);
-
-                // B. Apply New Stock
-                adjustStock(product, item.getQty(), newType, false); // Reversal = false
             }
         }
 
-        // 3.5 Handle Offers Update (only for SALE/PURCHASE)
-        // A. Rollback Old Offers
-        for (TransactionOffer oldOffer : existing.getOffers()) {
-            rollbackRedemption(oldOffer.getOfferId(), existing.getId().toString());
+        // Zero net deltas are skipped by the repository
+        productRepository.applyStockMovements(businessId,
+                toMovements(stockDeltas, StockMovementType.EDIT, existing.getId()));
+        if (oldType == TransactionType.SALE && newType == TransactionType.SALE) {
+            recordDemand(businessId, stockDeltas);
         }
-        existing.getOffers().clear();
+        dashboardEventStream.stockChanged(businessId, stockDeltas);
+    }
 
-        // B. Add New Offers
-        if (request.getAppliedOffers() != null
-                && (TransactionType.SALE.equals(newType) || TransactionType.PURCHASE.equals(newType))) {
-            for (TransactionRequest.TransactionOfferDto offerDto : request.getAppliedOffers()) {
-                TransactionOffer offer = new TransactionOffer();
-                // TransactionOffer entity defined doesn't have businessId, only ID,
-                // Transaction, OfferId, OfferName, Discount.
-                // It relies on Transaction -> Business linkage.
+    // Offers are keyed by offerId; only added, removed or changed ones are sent to smart-ops
+    private void reconcileOffers(Transaction existing, List<TransactionRequest.TransactionOfferDto> newOffers,
+            boolean partyChanged, UUID businessId) {
+        List<TransactionOffer> oldOffers = new ArrayList<>(existing.getOffers());
+        Map<String, TransactionOffer> oldById = new HashMap<>();
+        for (TransactionOffer oldOffer : oldOffers) {
+            oldById.putIfAbsent(oldOffer.getOfferId(), oldOffer);
+        }
 
+        Set<TransactionOffer> retained = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (TransactionRequest.TransactionOfferDto offerDto : newOffers) {
+            TransactionOffer match = oldById.remove(offerDto.getOfferId());
+            if (match == null) {
+                TransactionOffer offer = new TransactionOffer();
                 offer.setOfferId(offerDto.getOfferId());
                 offer.setOfferName(offerDto.getOfferName());
                 offer.setDiscountAmount(offerDto.getDiscountAmount());
-
                 existing.addOffer(offer);
-
-                // Notify Smart Ops (Record Usage)
-                recordOfferUsage(offerDto.getOfferId(), existing.getId().toString(), existing.getPartyId(),
-                        existing.getPartyName(), offerDto.getDiscountAmount());
+            } else {
+                retained.add(match);
+                match.setOfferName(offerDto.getOfferName());
+                if (sameAmount(match.getDiscountAmount(), offerDto.getDiscountAmount()) && !partyChanged) {
+                    continue;
+                }
+                match.setDiscountAmount(offerDto.getDiscountAmount());
+                // The stored redemption is stale; replace it
+                offerRedemptionDispatcher.rollback(businessId, match.getOfferId(), existing.getId());
             }
+            offerRedemptionDispatcher.recordUsage(businessId, offerDto.getOfferId(), existing.getId(),
+                    existing.getPartyId(), existing.getPartyName(), offerDto.getDiscountAmount());
         }
 
-        // 4. Apply New Balance Impact
-        if (request.getPartyId() != null) {
-            BigDecimal newAdjustment = BigDecimal.ZERO;
-
-            if (TransactionType.SALE.equals(newType)) {
-                BigDecimal newRemaining = request.getTotalAmount().subtract(request.getPaidAmount());
-                newAdjustment = newRemaining;
-            } else if (TransactionType.PURCHASE.equals(newType)) {
-                BigDecimal newRemaining = request.getTotalAmount().subtract(request.getPaidAmount());
-                newAdjustment = newRemaining.negate();
-            } else if (TransactionType.RECEIPT.equals(newType)) {
-                newAdjustment = request.getPaidAmount().negate();
-            } else if (TransactionType.PAYMENT.equals(newType)) {
-                newAdjustment = request.getPaidAmount();
+        for (TransactionOffer offer : oldOffers) {
+            if (!retained.contains(offer)) {
+                offerRedemptionDispatcher.rollback(businessId, offer.getOfferId(), existing.getId());
+                existing.getOffers().remove(offer);
             }
-            updatePartyBalance(request.getPartyId(), newAdjustment);
         }
+    }
 
-        transactionRepository.save(existing);
-        return existing.getId();
+    private static String lineKey(Long productId, boolean free) {
+        return productId + (free ? ":free" : ":paid");
+    }
+
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
     }
 
     @Override
@@ -525,103 +909,50 @@ public class TransactionServiceImpl implements TransactionService {
         }
 
         // 1. Revert Stock
+        Map<Long, BigDecimal> stockDeltas = new HashMap<>();
         for (TransactionProduct item : existing.getProducts()) {
-            adjustStock(item.getProduct(), item.getQty(), existing.getType(), true); // Reversal = true
+            addStockDelta(stockDeltas, item.getProduct().getId(), item.getQty(), existing.getType(), true); // Reversal = true
+        }
+        productRepository.applyStockMovements(businessId,
+                toMovements(stockDeltas, StockMovementType.REVERSAL, existing.getId()));
+        if (existing.getType() == TransactionType.SALE) {
+            recordDemand(businessId, stockDeltas);
         }
+        dashboardEventStream.stockChanged(businessId, stockDeltas);
 
         // 2. Revert Balance Impact
         if (existing.getPartyId() != null) {
-            BigDecimal adjustment = BigDecimal.ZERO;
-
-            TransactionType type = existing.getType();
-            if (TransactionType.SALE.equals(type)) {
-                BigDecimal remaining = existing.getTotalAmount().subtract(existing.getPaidAmount());
-                adjustment = remaining;
-            } else if (TransactionType.PURCHASE.equals(type)) {
-                BigDecimal remaining = existing.getTotalAmount().subtract(existing.getPaidAmount());
-                adjustment = remaining.negate();
-            } else if (TransactionType.RECEIPT.equals(type)) {
-                adjustment = existing.getPaidAmount().negate();
-            } else if (TransactionType.PAYMENT.equals(type)) {
-                adjustment = existing.getPaidAmount();
-            }
+            BigDecimal adjustment = calculateBalanceImpact(existing.getType(), existing.getTotalAmount(),
+                    existing.getPaidAmount());
             // Reverse it
-            updatePartyBalance(existing.getPartyId(), adjustment.negate());
+            updatePartyBalance(businessId, existing.getPartyId(), existing.getId(), adjustment.negate());
         }
 
         // 3. Rollback Offers
         for (TransactionOffer offer : existing.getOffers()) {
-            rollbackRedemption(offer.getOfferId(), existing.getId().toString());
+            offerRedemptionDispatcher.rollback(businessId, offer.getOfferId(), existing.getId());
         }
+        List<SalesRollupStore.Entry> rollupEntries = List.of(rollupEntry(existing, -1));
+        salesRollupRepository.applyRollupEntries(businessId, rollupEntries);
+        dashboardCache.invalidate(businessId);
+        dashboardEventStream.salesChanged(businessId, rollupEntries);
 
         // 4. Delete
         transactionRepository.delete(existing);
+        salesCube.transactionDeleted(businessId, existing.getId());
     }
 
-    private void rollbackRedemption(String offerId, String transactionId) {
-        try {
-            String url = smartOpsServiceUrl + "/api/smart-ops/offers/redemption/rollback";
-
-            // Body
-            Map<String, Object> body = Map.of(
-                    "offerId", offerId,
-                    "transactionId", transactionId);
-
-            // Get Token
-            String token = null;
-            ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder
-                    .getRequestAttributes();
-
-            if (attributes != null) {
-                String authHeader = attributes.getRequest().getHeader("Authorization");
-                if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                    token = authHeader.substring(7);
-                }
-            }
-
-            HttpHeaders headers = new HttpHeaders();
-            if (token != null)
-                headers.setBearerAuth(token);
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
-
-            restTemplate.postForEntity(url, entity, Void.class);
-
-        } catch (Exception e) {
-            System.err.println("Failed to rollback offer redemption: " + e.getMessage());
-        }
-    }
-
-    private void updatePartyBalance(Long partyId, BigDecimal adjustment) {
+    // Written in the caller's DB transaction, so the delta commits (or rolls back) with the bill
+    private void updatePartyBalance(UUID businessId, Long partyId, Long transactionId, BigDecimal adjustment) {
         if (adjustment.compareTo(BigDecimal.ZERO) == 0)
             return;
 
-        try {
-            String url = partiesServiceUrl + "/api/Parties/" + partyId + "/balance";
-            Map<String, BigDecimal> body = Collections.singletonMap("amount", adjustment);
-
-            // Get Token
-            String token = null;
-            ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder
-                    .getRequestAttributes();
-
-            if (attributes != null) {
-                String authHeader = attributes.getRequest().getHeader("Authorization");
-                if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                    token = authHeader.substring(7);
-                }
-            }
-
-            HttpHeaders headers = new HttpHeaders();
-            if (token != null)
-                headers.setBearerAuth(token);
-
-            HttpEntity<Map<String, BigDecimal>> entity = new HttpEntity<>(body, headers);
-            restTemplate.postForEntity(url, entity, Void.class);
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Failed to update party balance: " + e.getMessage());
-        }
+        PartyBalanceOutbox event = new PartyBalanceOutbox();
+        event.setBusinessId(businessId);
+        event.setPartyId(partyId);
+        event.setTransactionId(transactionId);
+        event.setAmount(adjustment);
+        event.setNextAttemptAt(LocalDateTime.now());
+        partyBalanceOutboxRepository.save(event);
     }
 }
@@ -1,6 +1,8 @@
 package com.sbms.trading_service.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -9,7 +11,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.sbms.trading_service.dto.UnitDto;
+import com.sbms.trading_service.entity.CatalogTombstone;
 import com.sbms.trading_service.entity.Unit;
+import com.sbms.trading_service.enums.CatalogEntityType;
+import com.sbms.trading_service.repository.CatalogTombstoneRepository;
 import com.sbms.trading_service.repository.UnitRepository;
 import com.sbms.trading_service.repository.ProductRepository;
 
@@ -22,6 +27,9 @@ public class UnitServiceImpl implements UnitService {
 
     private final UnitRepository unitRepository;
     private final ProductRepository productRepository;
+    private final CatalogTombstoneRepository catalogTombstoneRepository;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductScanCache productScanCache;
     private final ModelMapper modelMapper;
 
     @Override
@@ -54,6 +62,12 @@ public class UnitServiceImpl implements UnitService {
             throw new RuntimeException("Unauthorized");
         }
 
+        // Product rows and the product lookups carry the unit's name and symbol
+        if (!unit.getName().equals(name) || !Objects.equals(unit.getSymbol(), symbol)) {
+            productRepository.touchByUnit(id, businessId, LocalDateTime.now());
+            productSuggestIndex.invalidate(businessId);
+            productScanCache.invalidate(businessId);
+        }
         unit.setName(name);
         unit.setSymbol(symbol);
         
@@ -75,5 +89,9 @@ public class UnitServiceImpl implements UnitService {
         }
 
         unitRepository.delete(unit);
+
+        CatalogTombstone tombstone = new CatalogTombstone(CatalogEntityType.UNIT, unit.getId());
+        tombstone.setBusinessId(businessId);
+        catalogTombstoneRepository.save(tombstone);
     }
 }
\ No newline at end of file
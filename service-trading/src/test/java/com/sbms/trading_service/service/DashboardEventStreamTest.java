@@ -0,0 +1,38 @@
+package com.sbms.trading_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.sbms.trading_service.support.Concurrently;
+
+class DashboardEventStreamTest {
+
+    private static final int MAX_CONNECTIONS = 20;
+
+    private final DashboardEventStream stream = new DashboardEventStream(null, 30, MAX_CONNECTIONS, 100, 15);
+
+    @Test
+    void concurrentConnectsNeverExceedThePerBusinessCap() throws Exception {
+        UUID businessId = UUID.randomUUID();
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        Concurrently.run(64, worker -> {
+            try {
+                stream.subscribe(businessId);
+                accepted.incrementAndGet();
+            } catch (RuntimeException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertThat(accepted.get()).isEqualTo(MAX_CONNECTIONS);
+        assertThat(rejected.get()).isEqualTo(64 - MAX_CONNECTIONS);
+        // Another business has its own allowance
+        stream.subscribe(UUID.randomUUID());
+    }
+}
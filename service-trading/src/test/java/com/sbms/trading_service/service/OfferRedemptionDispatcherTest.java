@@ -0,0 +1,171 @@
+package com.sbms.trading_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sbms.trading_service.client.SmartOpsClient;
+import com.sbms.trading_service.security.JwtService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Drives the dispatcher and the real SmartOpsClient against a local HTTP stub of smart-ops
+class OfferRedemptionDispatcherTest {
+
+    private static final String SECRET = "dGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtMTIzNDU2";
+    private static final String BATCH_PATH = "/api/smart-ops/offers/redemption/batch";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    // The stub answers this many calls with 500, then 200
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private HttpServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private OfferRedemptionDispatcher dispatcher;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(BATCH_PATH, this::handle);
+        server.start();
+
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        meterRegistry = new SimpleMeterRegistry();
+        SmartOpsClient client = new SmartOpsClient(HttpClient.newHttpClient(), jwtService,
+                CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), meterRegistry,
+                "http://127.0.0.1:" + server.getAddress().getPort(), 2000, 800);
+
+        dispatcher = new OfferRedemptionDispatcher(client, meterRegistry, 100);
+        ReflectionTestUtils.setField(dispatcher, "maxBatch", 500);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void recordsAreSentOffTheCallerAsOneBatchPerBusiness() {
+        UUID shopA = UUID.randomUUID();
+        UUID shopB = UUID.randomUUID();
+        dispatcher.recordUsage(shopA, "diwali", 1L, 7L, "Ravi", new BigDecimal("50"));
+        dispatcher.recordUsage(shopA, "combo", 1L, 7L, "Ravi", new BigDecimal("20"));
+        dispatcher.recordUsage(shopB, "diwali", 2L, null, null, new BigDecimal("10"));
+
+        // Nothing goes out until the scheduled flush
+        assertThat(requests).isEmpty();
+        dispatcher.flush();
+
+        assertThat(requests).hasSize(2);
+        Request first = requests.get(0);
+        assertThat(first.authorization()).startsWith("Bearer ");
+        assertThat(first.records()).extracting(r -> r.get("offerId")).containsExactly("diwali", "combo");
+        assertThat(first.rollbacks()).isEmpty();
+        assertThat(requests.get(1).records()).singleElement()
+                .satisfies(r -> assertThat(r.get("customerId")).isEqualTo("walk-in"));
+        assertThat(meterRegistry.counter("smartops.redemptions.sent").count()).isEqualTo(3);
+    }
+
+    @Test
+    void recordThenRollbackOfTheSameBillCancelsOut() {
+        UUID shop = UUID.randomUUID();
+        dispatcher.recordUsage(shop, "diwali", 1L, 7L, "Ravi", new BigDecimal("50"));
+        dispatcher.rollback(shop, "diwali", 1L);
+
+        dispatcher.flush();
+
+        assertThat(requests).isEmpty();
+        assertThat(meterRegistry.counter("smartops.redemptions.cancelled").count()).isEqualTo(2);
+    }
+
+    @Test
+    void repeatedEditsKeepTheFirstRollbackAndTheLastRecord() {
+        UUID shop = UUID.randomUUID();
+        dispatcher.rollback(shop, "diwali", 1L);
+        dispatcher.recordUsage(shop, "diwali", 1L, 7L, "Ravi", new BigDecimal("40"));
+        dispatcher.rollback(shop, "diwali", 1L);
+        dispatcher.recordUsage(shop, "diwali", 1L, 7L, "Ravi", new BigDecimal("30"));
+
+        dispatcher.flush();
+
+        assertThat(requests).singleElement().satisfies(request -> {
+            assertThat(request.rollbacks()).hasSize(1);
+            assertThat(request.records()).singleElement()
+                    .satisfies(r -> assertThat(r.get("discountAmount")).isEqualTo(30));
+        });
+    }
+
+    @Test
+    void failedBatchIsRetriedOnTheNextFlushAndThenDropped() {
+        UUID shop = UUID.randomUUID();
+        dispatcher.recordUsage(shop, "diwali", 1L, 7L, "Ravi", new BigDecimal("50"));
+
+        failures.set(1);
+        dispatcher.flush();
+        assertThat(gauge("smartops.redemptions.queue.depth")).isEqualTo(1);
+
+        dispatcher.flush();
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(1).records()).hasSize(1);
+        assertThat(gauge("smartops.redemptions.queue.depth")).isZero();
+
+        dispatcher.recordUsage(shop, "combo", 2L, 7L, "Ravi", new BigDecimal("5"));
+        failures.set(10);
+        for (int i = 0; i < 3; i++) {
+            dispatcher.flush();
+        }
+        assertThat(meterRegistry.counter("smartops.redemptions.failed").count()).isEqualTo(1);
+        assertThat(gauge("smartops.redemptions.queue.depth")).isZero();
+    }
+
+    @Test
+    void fullQueueDropsInsteadOfBlockingTheSale() {
+        UUID shop = UUID.randomUUID();
+        for (long id = 1; id <= 101; id++) {
+            dispatcher.recordUsage(shop, "diwali", id, null, null, BigDecimal.ONE);
+        }
+
+        assertThat(meterRegistry.counter("smartops.redemptions.dropped").count()).isEqualTo(1);
+        dispatcher.flush();
+        assertThat(requests).singleElement().satisfies(r -> assertThat(r.records()).hasSize(100));
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void handle(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = objectMapper.readValue(exchange.getRequestBody(), Map.class);
+        requests.add(new Request(exchange.getRequestHeaders().getFirst("Authorization"),
+                (List<Map<String, Object>>) body.get("records"), (List<Map<String, Object>>) body.get("rollbacks")));
+        int status = failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0 ? 500 : 200;
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    private record Request(String authorization, List<Map<String, Object>> records,
+            List<Map<String, Object>> rollbacks) {
+    }
+}
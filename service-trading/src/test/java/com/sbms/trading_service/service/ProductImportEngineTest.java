@@ -0,0 +1,47 @@
+package com.sbms.trading_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.sbms.trading_service.support.Concurrently;
+import com.sbms.trading_service.support.PostgresIntegrationTest;
+
+class ProductImportEngineTest extends PostgresIntegrationTest {
+
+    private static final String CSV = "name,categoryName,unitName,buyPrice,qty,minStock,gstRate,sku\n"
+            + "Rice,Grains,kg,40,100,10,5,RICE-1\n";
+
+    @Autowired
+    private ProductImportEngine productImportEngine;
+
+    // The active-job check and the job insert run under the business's advisory lock
+    @Test
+    void concurrentUploadsForOneBusinessStartOneImport() throws Exception {
+        UUID businessId = UUID.randomUUID();
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        Concurrently.run(8, worker -> {
+            try {
+                productImportEngine.start(businessId, "csv",
+                        new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)));
+                started.incrementAndGet();
+            } catch (RuntimeException e) {
+                assertThat(e).hasMessage("A product import is already running for this business");
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertThat(started.get()).isEqualTo(1);
+        assertThat(rejected.get()).isEqualTo(7);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM product_import_jobs WHERE business_id = ?",
+                Long.class, businessId)).isEqualTo(1);
+    }
+}
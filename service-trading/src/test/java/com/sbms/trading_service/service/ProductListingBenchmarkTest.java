@@ -0,0 +1,81 @@
+package com.sbms.trading_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.sbms.trading_service.dto.ProductResponse;
+import com.sbms.trading_service.entity.Product;
+import com.sbms.trading_service.support.Benchmark;
+import com.sbms.trading_service.support.PostgresIntegrationTest;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Product listing for a 20k-SKU catalog: the SQL projection behind getMyProducts and getProductsPage
+ * against the path it replaced (entities with eager category and unit, then ModelMapper per row),
+ * reproduced here as it was. Run with -Pbenchmark.
+ */
+@Tag("benchmark")
+@Slf4j
+class ProductListingBenchmarkTest extends PostgresIntegrationTest {
+
+    private static final int PRODUCTS = 20_000;
+
+    private static final String SEED_SQL =
+            "INSERT INTO products (business_id, product_name, category_id, unit_id, current_stock, min_stock, "
+            + "buy_price, sell_price, mrp, gst_rate, hsn, sku, created_at, updated_at) "
+            + "SELECT ?, 'Product ' || g, ?, ?, g % 200, 10, 50, 60, 70, 5.0, '1006', 'SKU-' || g, now(), now() "
+            + "FROM generate_series(2, ?) g";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ModelMapper modelMapper;
+
+    @Test
+    void projectionBeatsEntitiesAndModelMapper() {
+        UUID businessId = UUID.randomUUID();
+        Product first = createProduct(businessId, "Product 1", BigDecimal.ONE);
+        jdbcTemplate.update(SEED_SQL, businessId, first.getCategory().getId(), first.getUnit().getId(), PRODUCTS);
+        jdbcTemplate.execute("ANALYZE products");
+
+        double entities = Benchmark.medianMillis(3, 9,
+                () -> assertThat(entityListing(businessId)).hasSize(PRODUCTS));
+        double projected = Benchmark.medianMillis(3, 9,
+                () -> assertThat(productService.getMyProducts(businessId, null)).hasSize(PRODUCTS));
+        double page = Benchmark.medianMillis(5, 25,
+                () -> assertThat(productService.getProductsPage(businessId, null, null, false, 10, 50, "name", "asc")
+                        .getItems()).hasSize(50));
+
+        log.info("Listing {} products: {} ms via entities + ModelMapper, {} ms via projection, {} ms for a page of 50",
+                PRODUCTS, String.format("%.1f", entities), String.format("%.1f", projected),
+                String.format("%.1f", page));
+        assertThat(projected).isLessThan(entities);
+        assertThat(page).isLessThan(projected);
+    }
+
+    // getMyProducts before the projection
+    private List<ProductResponse> entityListing(UUID businessId) {
+        return productRepository.findAllByBusinessId(businessId).stream()
+                .map(product -> {
+                    ProductResponse response = modelMapper.map(product, ProductResponse.class);
+                    response.setCategoryId(product.getCategory().getId());
+                    response.setUnitId(product.getUnit().getId());
+                    response.setCategoryName(product.getCategory().getName());
+                    response.setUnitName(product.getUnit().getName());
+                    response.setUnitSymbol(product.getUnit().getSymbol());
+                    return response;
+                })
+                .collect(Collectors.toList());
+    }
+}
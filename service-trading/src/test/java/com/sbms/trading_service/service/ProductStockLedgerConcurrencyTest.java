@@ -0,0 +1,72 @@
+package com.sbms.trading_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.sbms.trading_service.dto.ProductRequest;
+import com.sbms.trading_service.entity.Product;
+import com.sbms.trading_service.support.Concurrently;
+import com.sbms.trading_service.support.PostgresIntegrationTest;
+
+// Manual stock edits lock the product row, so the ADJUSTMENT they write to the ledger is computed from
+// the stock bills left behind, and the ledger keeps adding up to the live stock however they interleave
+class ProductStockLedgerConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int SELLERS = 8;
+    private static final int BILLS_PER_SELLER = 25;
+    private static final int EDITS = 25;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void ledgerMatchesStockWhenEditsRaceBills() throws Exception {
+        UUID businessId = UUID.randomUUID();
+        BigDecimal opening = new BigDecimal("1000");
+        Product product = createProduct(businessId, "Rice", opening);
+
+        Concurrently.run(SELLERS + 1, worker -> {
+            if (worker == SELLERS) {
+                // Stock takes: the counted stock is written over whatever bills have done meanwhile
+                for (int i = 0; i < EDITS; i++) {
+                    productService.updateProduct(product.getId(), stockTake(product, new BigDecimal(900 + i)),
+                            businessId);
+                }
+                return;
+            }
+            for (int i = 0; i < BILLS_PER_SELLER; i++) {
+                transactionService.createTransaction(bill("SALE", product.getId(), BigDecimal.ONE), businessId);
+            }
+        });
+
+        BigDecimal stock = currentStock(product.getId());
+        assertThat(ledgerTotal(product.getId())).isEqualByComparingTo(stock.subtract(opening));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM stock_movements WHERE product_id = ? AND movement_type = 'SALE'",
+                Long.class, product.getId())).isEqualTo(SELLERS * BILLS_PER_SELLER);
+        assertThat(productService.getStockAt(product.getId(), businessId, LocalDateTime.now()).getStock())
+                .isEqualByComparingTo(stock);
+    }
+
+    private ProductRequest stockTake(Product product, BigDecimal counted) {
+        ProductRequest request = new ProductRequest();
+        request.setCategoryId(product.getCategory().getId());
+        request.setUnitId(product.getUnit().getId());
+        request.setName(product.getName());
+        request.setCurrentStock(counted);
+        request.setMinStock(product.getMinStock());
+        request.setBuyPrice(product.getBuyPrice());
+        request.setSellPrice(product.getSellPrice());
+        request.setGstRate(0.0);
+        return request;
+    }
+}
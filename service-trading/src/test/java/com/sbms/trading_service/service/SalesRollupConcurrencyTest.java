@@ -0,0 +1,96 @@
+package com.sbms.trading_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.sbms.trading_service.entity.Product;
+import com.sbms.trading_service.support.Concurrently;
+import com.sbms.trading_service.support.PostgresIntegrationTest;
+
+// Bills add to the rollups incrementally while a rebuild recreates them; the business advisory lock must keep
+// every bill counted exactly once either way
+class SalesRollupConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int SELLERS = 8;
+    private static final int BILLS_PER_SELLER = 25;
+
+    private static final String DAILY_SQL =
+            "SELECT bucket_date, type, total_amount, bill_count FROM sales_rollup_daily "
+            + "WHERE business_id = ? AND bill_count <> 0 ORDER BY bucket_date, type";
+    private static final String DAILY_FROM_BILLS_SQL =
+            "SELECT transaction_date AS bucket_date, type, sum(total_amount) AS total_amount, count(*) AS bill_count "
+            + "FROM transactions WHERE business_id = ? GROUP BY transaction_date, type ORDER BY bucket_date, type";
+    private static final String HOURLY_TOTAL_SQL =
+            "SELECT COALESCE(sum(total_amount), 0) FROM sales_rollup_hourly WHERE business_id = ?";
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private SalesRollupRebuildJob salesRollupRebuildJob;
+
+    @Test
+    void rebuildRacingBillsNeitherLosesNorDoublesThem() throws Exception {
+        UUID businessId = UUID.randomUUID();
+        Product product = createProduct(businessId, "Rice", new BigDecimal("10000"));
+        AtomicInteger selling = new AtomicInteger(SELLERS);
+
+        Concurrently.run(SELLERS + 1, worker -> {
+            if (worker == SELLERS) {
+                do {
+                    salesRollupRebuildJob.rebuild();
+                } while (selling.get() > 0);
+                return;
+            }
+            for (int i = 0; i < BILLS_PER_SELLER; i++) {
+                transactionService.createTransaction(bill(i % 5 == 0 ? "PURCHASE" : "SALE", product.getId(),
+                        BigDecimal.ONE), businessId);
+            }
+            selling.decrementAndGet();
+        });
+
+        assertRollupsMatchBills(businessId);
+    }
+
+    @Test
+    void editsAndDeletesAreTakenBackOut() {
+        UUID businessId = UUID.randomUUID();
+        Product product = createProduct(businessId, "Rice", new BigDecimal("10000"));
+        transactionService.createTransaction(bill("SALE", product.getId(), BigDecimal.ONE), businessId);
+        Long edited = transactionService.createTransaction(bill("SALE", product.getId(), BigDecimal.ONE), businessId);
+        Long deleted = transactionService.createTransaction(bill("SALE", product.getId(), BigDecimal.ONE), businessId);
+
+        transactionService.updateTransaction(edited, bill("SALE", product.getId(), new BigDecimal("4")), businessId);
+        transactionService.deleteTransaction(deleted, businessId);
+
+        assertRollupsMatchBills(businessId);
+    }
+
+    private void assertRollupsMatchBills(UUID businessId) {
+        List<Map<String, Object>> daily = jdbcTemplate.queryForList(DAILY_SQL, businessId);
+        List<Map<String, Object>> fromBills = jdbcTemplate.queryForList(DAILY_FROM_BILLS_SQL, businessId);
+        assertThat(daily).hasSameSizeAs(fromBills);
+        for (int i = 0; i < daily.size(); i++) {
+            assertThat(daily.get(i).get("bucket_date")).isEqualTo(fromBills.get(i).get("bucket_date"));
+            assertThat(daily.get(i).get("type")).isEqualTo(fromBills.get(i).get("type"));
+            assertThat((BigDecimal) daily.get(i).get("total_amount"))
+                    .isEqualByComparingTo((BigDecimal) fromBills.get(i).get("total_amount"));
+            assertThat(((Number) daily.get(i).get("bill_count")).longValue())
+                    .isEqualTo(((Number) fromBills.get(i).get("bill_count")).longValue());
+        }
+
+        BigDecimal billed = fromBills.stream()
+                .map(row -> (BigDecimal) row.get("total_amount"))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(jdbcTemplate.queryForObject(HOURLY_TOTAL_SQL, BigDecimal.class, businessId))
+                .isEqualByComparingTo(billed);
+    }
+}
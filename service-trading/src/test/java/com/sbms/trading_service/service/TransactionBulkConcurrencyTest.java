@@ -0,0 +1,88 @@
+package com.sbms.trading_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.sbms.trading_service.dto.BulkTransactionResponse;
+import com.sbms.trading_service.dto.TransactionRequest;
+import com.sbms.trading_service.entity.Product;
+import com.sbms.trading_service.support.Concurrently;
+import com.sbms.trading_service.support.PostgresIntegrationTest;
+
+// Offline counters replay the same batch from several devices at once; each key must land exactly once
+class TransactionBulkConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int REPLAYS = 8;
+    private static final int BILLS = 50;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Test
+    void concurrentReplaysOfOneBatchCreateEachBillOnce() throws Exception {
+        UUID businessId = UUID.randomUUID();
+        BigDecimal opening = new BigDecimal("1000");
+        Product product = createProduct(businessId, "Rice", opening);
+
+        List<TransactionRequest> batch = new ArrayList<>();
+        for (int i = 0; i < BILLS; i++) {
+            TransactionRequest sale = bill("SALE", product.getId(), BigDecimal.ONE);
+            sale.setIdempotencyKey("pos-1-" + i);
+            batch.add(sale);
+        }
+
+        Map<String, Long> idsByKey = new ConcurrentHashMap<>();
+        Concurrently.run(REPLAYS, replay -> {
+            BulkTransactionResponse response = transactionService.bulkCreateTransactions(batch, businessId);
+            assertThat(response.getFailed()).isZero();
+            assertThat(response.getCreated() + response.getDuplicates()).isEqualTo(BILLS);
+            // Every replay reports the same stored bill for a key, whether it created it or not
+            for (BulkTransactionResponse.ItemResult result : response.getResults()) {
+                Long known = idsByKey.putIfAbsent(result.getIdempotencyKey(), result.getTransactionId());
+                assertThat(result.getTransactionId()).isEqualTo(known != null ? known : result.getTransactionId());
+            }
+        });
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM transactions WHERE business_id = ?",
+                Long.class, businessId)).isEqualTo(BILLS);
+        assertThat(currentStock(product.getId())).isEqualByComparingTo(opening.subtract(new BigDecimal(BILLS)));
+        assertThat(ledgerTotal(product.getId())).isEqualByComparingTo(new BigDecimal(-BILLS));
+    }
+
+    // A product sold and bought back in one replay has no net stock change, but its demand must still be
+    // recorded under the row lock, or concurrent replays lose forecast updates
+    @Test
+    void demandOfProductsWithNoNetStockChangeIsNotLost() throws Exception {
+        UUID businessId = UUID.randomUUID();
+        BigDecimal opening = new BigDecimal("100");
+        Product product = createProduct(businessId, "Rice", opening);
+
+        Concurrently.run(REPLAYS, replay -> {
+            for (int round = 0; round < 5; round++) {
+                TransactionRequest sale = bill("SALE", product.getId(), new BigDecimal("3"));
+                sale.setIdempotencyKey("sale-" + replay + "-" + round);
+                TransactionRequest purchase = bill("PURCHASE", product.getId(), new BigDecimal("3"));
+                purchase.setIdempotencyKey("purchase-" + replay + "-" + round);
+
+                BulkTransactionResponse response = transactionService.bulkCreateTransactions(
+                        List.of(sale, purchase), businessId);
+                assertThat(response.getCreated()).isEqualTo(2);
+            }
+        });
+
+        assertThat(currentStock(product.getId())).isEqualByComparingTo(opening);
+        Double demand = jdbcTemplate.queryForObject(
+                "SELECT open_demand FROM product_demand_forecasts WHERE business_id = ? AND product_id = ?",
+                Double.class, businessId, product.getId());
+        assertThat(demand).isEqualTo(3.0 * 5 * REPLAYS);
+    }
+}
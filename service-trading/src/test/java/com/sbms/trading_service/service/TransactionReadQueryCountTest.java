@@ -0,0 +1,93 @@
+package com.sbms.trading_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import com.sbms.trading_service.dto.CursorPage;
+import com.sbms.trading_service.dto.TransactionRequest;
+import com.sbms.trading_service.dto.TransactionResponse;
+import com.sbms.trading_service.entity.Product;
+import com.sbms.trading_service.support.PostgresIntegrationTest;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// The read path loads a page, its lines and its offers in one query each, however many bills the page holds
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TransactionReadQueryCountTest extends PostgresIntegrationTest {
+
+    private static final int BILLS = 200;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UUID businessId;
+
+    @BeforeEach
+    void seedBills() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        businessId = UUID.randomUUID();
+        Product rice = createProduct(businessId, "Rice", new BigDecimal("10000"));
+        Product dal = createProduct(businessId, "Dal", new BigDecimal("10000"));
+
+        List<TransactionRequest> bills = new ArrayList<>();
+        for (int i = 0; i < BILLS; i++) {
+            TransactionRequest sale = bill("SALE", rice.getId(), BigDecimal.ONE);
+            TransactionRequest.TransactionProductDto dalLine = bill("SALE", dal.getId(), BigDecimal.ONE)
+                    .getProducts().get(0);
+            sale.setProducts(List.of(sale.getProducts().get(0), dalLine));
+            sale.setIdempotencyKey("bill-" + i);
+            sale.setPartyName("Customer " + i);
+
+            TransactionRequest.TransactionOfferDto offer = new TransactionRequest.TransactionOfferDto();
+            offer.setOfferId("offer-" + (i % 3));
+            offer.setOfferName("Offer " + (i % 3));
+            offer.setDiscountAmount(BigDecimal.ONE);
+            sale.setAppliedOffers(List.of(offer));
+            bills.add(sale);
+        }
+        assertThat(transactionService.bulkCreateTransactions(bills, businessId).getCreated()).isEqualTo(BILLS);
+    }
+
+    @Test
+    void pageOfBillsIsReadInThreeQueries() {
+        statistics.clear();
+        CursorPage<TransactionResponse> page = transactionService.searchTransactionsPage(businessId, null, "All",
+                "All Time", null, null, null, BILLS);
+
+        assertThat(page.getItems()).hasSize(BILLS);
+        assertThat(page.getItems()).allSatisfy(t -> {
+            assertThat(t.getDetails()).hasSize(2);
+            assertThat(t.getAppliedOffers()).hasSize(1);
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityFetchCount()).isZero();
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+
+    @Test
+    void queryCountDoesNotGrowWithPageSize() {
+        statistics.clear();
+        transactionService.searchTransactionsPage(businessId, "customer", "SALE", "All Time", null, null, null, 10);
+        long small = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        transactionService.searchTransactionsPage(businessId, "customer", "SALE", "All Time", null, null, null, BILLS);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(small);
+    }
+}
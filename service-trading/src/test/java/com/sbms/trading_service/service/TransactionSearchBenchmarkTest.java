@@ -0,0 +1,62 @@
+package com.sbms.trading_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.sbms.trading_service.support.Benchmark;
+import com.sbms.trading_service.support.PostgresIntegrationTest;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Party-name search over one business with 1M bills, with the pg_trgm index and without it (the plain
+ * LIKE path, which walks the business's date index and filters every row). Run with -Pbenchmark.
+ */
+@Tag("benchmark")
+@Slf4j
+class TransactionSearchBenchmarkTest extends PostgresIntegrationTest {
+
+    private static final int BILLS = 1_000_000;
+    private static final int MATCHES = 25;
+
+    private static final String SEED_SQL =
+            "INSERT INTO transactions (business_id, party_name, transaction_date, type, total_amount, paid_amount, "
+            + "created_at, updated_at) "
+            + "SELECT ?, 'Party ' || md5(g::text), current_date - (g % 730), 'SALE', 100, 100, now(), now() "
+            + "FROM generate_series(1, ?) g";
+
+    private static final String TRIGRAM_INDEX_SQL = "CREATE INDEX IF NOT EXISTS idx_transactions_party_name_trgm "
+            + "ON transactions USING gin (lower(party_name) gin_trgm_ops)";
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Test
+    void trigramIndexBeatsTheScanAtOneMillionBills() {
+        UUID businessId = UUID.randomUUID();
+        jdbcTemplate.update(SEED_SQL, businessId, BILLS - MATCHES);
+        jdbcTemplate.update(SEED_SQL.replace("'Party ' || md5(g::text)", "'Ravi Kumar Traders'"), businessId, MATCHES);
+        jdbcTemplate.execute("ANALYZE transactions");
+
+        Runnable search = () -> assertThat(transactionService.searchTransactionsPage(businessId, "kumar", "All",
+                "All Time", null, null, null, 50).getItems()).hasSize(MATCHES);
+
+        double indexed = Benchmark.medianMillis(5, 25, search);
+        double scanned;
+        try {
+            jdbcTemplate.execute("DROP INDEX idx_transactions_party_name_trgm");
+            scanned = Benchmark.medianMillis(2, 9, search);
+        } finally {
+            jdbcTemplate.execute(TRIGRAM_INDEX_SQL);
+        }
+
+        log.info("Party-name search over {} bills: {} ms with the trigram index, {} ms without",
+                BILLS, String.format("%.2f", indexed), String.format("%.2f", scanned));
+        assertThat(indexed).isLessThan(scanned);
+    }
+}
@@ -0,0 +1,70 @@
+package com.sbms.trading_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.sbms.trading_service.dto.TransactionRequest;
+import com.sbms.trading_service.entity.Product;
+import com.sbms.trading_service.support.Concurrently;
+import com.sbms.trading_service.support.PostgresIntegrationTest;
+
+// Stock is changed with current_stock = current_stock + delta under the product row lock, so bills
+// racing on the same products must neither lose an update, deadlock, nor leave the ledger out of step
+class TransactionStockConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 16;
+    private static final int BILLS_PER_THREAD = 25;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Test
+    void concurrentSalesOfOneProductLoseNoStockUpdates() throws Exception {
+        UUID businessId = UUID.randomUUID();
+        BigDecimal opening = new BigDecimal("10000");
+        Product product = createProduct(businessId, "Rice", opening);
+
+        Concurrently.run(THREADS, worker -> {
+            for (int i = 0; i < BILLS_PER_THREAD; i++) {
+                transactionService.createTransaction(bill("SALE", product.getId(), new BigDecimal("2")), businessId);
+            }
+        });
+
+        BigDecimal sold = new BigDecimal(2 * THREADS * BILLS_PER_THREAD);
+        assertThat(currentStock(product.getId())).isEqualByComparingTo(opening.subtract(sold));
+        assertThat(ledgerTotal(product.getId())).isEqualByComparingTo(sold.negate());
+    }
+
+    @Test
+    void billsListingProductsInOppositeOrdersDoNotDeadlock() throws Exception {
+        UUID businessId = UUID.randomUUID();
+        BigDecimal opening = new BigDecimal("1000");
+        Product rice = createProduct(businessId, "Rice", opening);
+        Product dal = createProduct(businessId, "Dal", opening);
+
+        Concurrently.run(THREADS, worker -> {
+            for (int i = 0; i < BILLS_PER_THREAD; i++) {
+                TransactionRequest sale = bill("SALE", rice.getId(), BigDecimal.ONE);
+                TransactionRequest.TransactionProductDto riceLine = sale.getProducts().get(0);
+                TransactionRequest.TransactionProductDto dalLine = bill("SALE", dal.getId(), BigDecimal.ONE)
+                        .getProducts().get(0);
+                sale.setProducts(worker % 2 == 0 ? List.of(riceLine, dalLine) : List.of(dalLine, riceLine));
+                sale.setSubTotal(sale.getSubTotal().add(dalLine.getAmount()));
+                sale.setTotalAmount(sale.getSubTotal());
+                sale.setPaidAmount(sale.getSubTotal());
+                transactionService.createTransaction(sale, businessId);
+            }
+        });
+
+        BigDecimal expected = opening.subtract(new BigDecimal(THREADS * BILLS_PER_THREAD));
+        assertThat(currentStock(rice.getId())).isEqualByComparingTo(expected);
+        assertThat(currentStock(dal.getId())).isEqualByComparingTo(expected);
+        assertThat(ledgerTotal(rice.getId())).isEqualByComparingTo(expected.subtract(opening));
+    }
+}
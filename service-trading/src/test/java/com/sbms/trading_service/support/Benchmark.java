@@ -0,0 +1,24 @@
+package com.sbms.trading_service.support;
+
+import java.util.Arrays;
+
+// Wall-clock timing for the benchmark-tagged tests; medians keep one slow GC or checkpoint out of the result
+public final class Benchmark {
+
+    private Benchmark() {
+    }
+
+    public static double medianMillis(int warmups, int runs, Runnable call) {
+        for (int i = 0; i < warmups; i++) {
+            call.run();
+        }
+        double[] millis = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            long started = System.nanoTime();
+            call.run();
+            millis[i] = (System.nanoTime() - started) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        return millis[runs / 2];
+    }
+}
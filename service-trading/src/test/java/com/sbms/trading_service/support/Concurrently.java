@@ -0,0 +1,44 @@
+package com.sbms.trading_service.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Runs workers on their own threads, released together so they actually overlap
+public final class Concurrently {
+
+    @FunctionalInterface
+    public interface Worker {
+        void run(int worker) throws Exception;
+    }
+
+    private Concurrently() {
+    }
+
+    // Waits for every worker and rethrows the first failure; a deadlock surfaces as a timeout
+    public static void run(int workers, Worker worker) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    worker.run(index);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.sbms.trading_service.support;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.sbms.trading_service.dto.TransactionRequest;
+import com.sbms.trading_service.entity.Category;
+import com.sbms.trading_service.entity.Product;
+import com.sbms.trading_service.entity.Unit;
+import com.sbms.trading_service.repository.CategoryRepository;
+import com.sbms.trading_service.repository.ProductRepository;
+import com.sbms.trading_service.repository.UnitRepository;
+
+/**
+ * Boots the service against a real Postgres, shared by every test class of the JVM run. The
+ * locking and batching under test (row locks, advisory locks, ON CONFLICT, CONCURRENTLY) only
+ * mean something on Postgres, so these tests are skipped rather than faked where Docker is missing.
+ * Each test works in its own random business, so no cleanup is needed between tests.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    // Started once and stopped by Testcontainers' reaper when the JVM exits
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        POSTGRES.start();
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("jwt.secret", () -> "dGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtMTIzNDU2");
+    }
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    protected Product createProduct(UUID businessId, String name, BigDecimal stock) {
+        Category category = new Category();
+        category.setBusinessId(businessId);
+        category.setName("General");
+        category = categoryRepository.save(category);
+
+        Unit unit = new Unit();
+        unit.setBusinessId(businessId);
+        unit.setName("pcs");
+        unit.setSymbol("pcs");
+        unit = unitRepository.save(unit);
+
+        Product product = new Product();
+        product.setBusinessId(businessId);
+        product.setName(name);
+        product.setCategory(category);
+        product.setUnit(unit);
+        product.setCurrentStock(stock);
+        product.setMinStock(BigDecimal.ZERO);
+        product.setBuyPrice(BigDecimal.ONE);
+        product.setSellPrice(BigDecimal.TEN);
+        return productRepository.save(product);
+    }
+
+    // A cash bill of qty units of one product at 10 each
+    protected TransactionRequest bill(String type, Long productId, BigDecimal qty) {
+        BigDecimal amount = qty.multiply(BigDecimal.TEN);
+
+        TransactionRequest.TransactionProductDto line = new TransactionRequest.TransactionProductDto();
+        line.setProductId(productId);
+        line.setQty(qty);
+        line.setPrice(BigDecimal.TEN);
+        line.setAmount(amount);
+
+        TransactionRequest request = new TransactionRequest();
+        request.setType(type);
+        request.setDate(LocalDate.now());
+        request.setSubTotal(amount);
+        request.setDiscount(BigDecimal.ZERO);
+        request.setTotalAmount(amount);
+        request.setPaidAmount(amount);
+        request.setPaymentMode("CASH");
+        request.setProducts(List.of(line));
+        return request;
+    }
+
+    protected BigDecimal currentStock(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT current_stock FROM products WHERE product_id = ?",
+                BigDecimal.class, productId);
+    }
+
+    protected BigDecimal ledgerTotal(Long productId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(sum(quantity), 0) FROM stock_movements WHERE product_id = ?",
+                BigDecimal.class, productId);
+    }
+}